@@ -2,12 +2,28 @@ package com.bolsadeideas.springboot.backend.apirest;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+//Anotación para habilitar el uso de caché en los servicios
+@EnableCaching
+//Anotación para habilitar las tareas programadas, como el archivado de clientes eliminados
+@EnableScheduling
 public class SpringBootBackendApirestApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SpringBootBackendApirestApplication.class, args);
+		SpringApplication application = new SpringApplication(SpringBootBackendApirestApplication.class);
+		//Se registra la duración de cada paso del arranque para consultarla en /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		ConfigurableApplicationContext context = application.run(args);
+
+		//Ejecución de entrenamiento del archivo AppCDS (perfil cds de Maven): se detiene al terminar el arranque
+		if (context.getEnvironment().getProperty("app.startup.exit-on-ready", Boolean.class, false)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -0,0 +1,89 @@
+package com.bolsadeideas.springboot.backend.apirest.auth;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.oauth2.config.annotation.configurers.ClientDetailsServiceConfigurer;
+import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurerAdapter;
+import org.springframework.security.oauth2.config.annotation.web.configuration.EnableAuthorizationServer;
+import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
+import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+//Configuración del servidor de autorización que emite los tokens JWT en /oauth/token
+//El usuario solo se consulta en la base de datos al iniciar sesión
+//El servidor de autorización solo está disponible en la variante servlet, el perfil reactive valida los mismos tokens
+@Profile("!reactive")
+@Configuration
+@EnableAuthorizationServer
+public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdapter {
+
+	//Se inyecta el codificador de contraseñas definido en SpringSecurityConfig
+	@Autowired
+	private BCryptPasswordEncoder passwordEncoder;
+
+	//Se inyecta el AuthenticationManager definido en SpringSecurityConfig
+	@Autowired
+	@Qualifier("authenticationManager")
+	private AuthenticationManager authenticationManager;
+
+	//Llave con la que se firman y validan los tokens
+	@Value("${app.security.jwt.signing-key}")
+	private String signingKey;
+
+	//Datos de la aplicación cliente (front end Angular) autorizada a solicitar tokens
+	@Value("${app.security.client-id}")
+	private String clientId;
+
+	@Value("${app.security.client-secret}")
+	private String clientSecret;
+
+	//Tiempo de validez del token de acceso en segundos
+	@Value("${app.security.access-token-validity:3600}")
+	private int accessTokenValidity;
+
+	@Override
+	public void configure(AuthorizationServerSecurityConfigurer security) throws Exception {
+		//Se permite a cualquiera solicitar un token y solo a clientes autenticados validarlo
+		security.tokenKeyAccess("permitAll()")
+		.checkTokenAccess("isAuthenticated()");
+	}
+
+	@Override
+	public void configure(ClientDetailsServiceConfigurer clients) throws Exception {
+		clients.inMemory().withClient(clientId)
+		.secret(passwordEncoder.encode(SecuritySecrets.requireClientSecret(clientSecret)))
+		.scopes("read", "write")
+		.authorizedGrantTypes("password", "refresh_token")
+		.accessTokenValiditySeconds(accessTokenValidity)
+		.refreshTokenValiditySeconds(accessTokenValidity);
+	}
+
+	@Override
+	public void configure(AuthorizationServerEndpointsConfigurer endpoints) throws Exception {
+		endpoints.authenticationManager(authenticationManager)
+		.tokenStore(tokenStore())
+		.accessTokenConverter(accessTokenConverter());
+	}
+
+	//Se usa JwtTokenStore para que los tokens no se almacenen: toda la información viaja firmada en el JWT
+	@Bean
+	public JwtTokenStore tokenStore() {
+		return new JwtTokenStore(accessTokenConverter());
+	}
+
+	//El convertidor crea una sola vez el firmador y el verificador a partir de la llave,
+	//por lo que validar un token no requiere consultar la base de datos ni un servicio remoto
+	@Bean
+	public JwtAccessTokenConverter accessTokenConverter() {
+		JwtAccessTokenConverter jwtAccessTokenConverter = new JwtAccessTokenConverter();
+		jwtAccessTokenConverter.setSigningKey(SecuritySecrets.requireSigningKey(signingKey));
+		return jwtAccessTokenConverter;
+	}
+}
@@ -0,0 +1,28 @@
+package com.bolsadeideas.springboot.backend.apirest.auth;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.authentication.BearerTokenExtractor;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+//Extrae el token de la cabecera Authorization y, solo en GET /api/clientes/changes, también del parámetro access_token
+//El EventSource del navegador no puede enviar cabeceras, por lo que el consumidor abre la conexión con
+///api/clientes/changes?access_token=<token>; en el resto de endpoints el parámetro se ignora para que los tokens
+//no queden en las URLs (logs de acceso, historial del navegador)
+public class EventStreamTokenExtractor extends BearerTokenExtractor {
+
+	private static final RequestMatcher EVENT_STREAM = new AntPathRequestMatcher("/api/clientes/changes", HttpMethod.GET.name());
+
+	@Override
+	protected String extractToken(HttpServletRequest request) {
+		//Se da prioridad a la cabecera, igual que en el resto de endpoints
+		String token = extractHeaderToken(request);
+		if (token == null && EVENT_STREAM.matches(request)) {
+			token = request.getParameter(OAuth2AccessToken.ACCESS_TOKEN);
+		}
+		return token;
+	}
+}
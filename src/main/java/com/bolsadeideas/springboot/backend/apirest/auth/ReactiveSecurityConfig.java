@@ -0,0 +1,98 @@
+package com.bolsadeideas.springboot.backend.apirest.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+//Configuración de seguridad de la variante reactiva, equivalente a ResourceServerConfig
+//Valida localmente los JWT emitidos por el servidor de autorización de la variante servlet, firmados con la misma llave
+@Profile("reactive")
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+	//Llave con la que se validan los tokens, debe tener al menos 32 bytes para HMAC-SHA256
+	@Value("${app.security.jwt.signing-key}")
+	private String signingKey;
+
+	@Bean
+	public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+		//Los listados de clientes son públicos, el resto de endpoints requiere un token válido
+		//No se guarda el contexto de seguridad en sesión, ya que cada petición trae su token
+		//Prometheus no envía tokens al hacer scrape, su acceso se debe restringir en la red
+		return http.authorizeExchange()
+		.pathMatchers(HttpMethod.GET, "/api/clientes", "/api/clientes/page/**", "/api/clientes/scroll").permitAll()
+		.pathMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+		.anyExchange().authenticated()
+		.and()
+		.csrf().disable()
+		.httpBasic().disable()
+		.formLogin().disable()
+		.securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+		//Se deshabilita la cabecera Cache-Control por defecto (no-store) para permitir las peticiones condicionales con ETag
+		.headers().cache().disable()
+		.and()
+		.cors().configurationSource(corsConfigurationSource())
+		.and()
+		.oauth2ResourceServer().jwt()
+		.jwtDecoder(jwtDecoder())
+		.jwtAuthenticationConverter(jwtAuthenticationConverter())
+		.and()
+		.and()
+		.build();
+	}
+
+	//El decodificador valida la firma HMAC-SHA256 del token con la llave compartida, sin consultar la base de datos
+	@Bean
+	public ReactiveJwtDecoder jwtDecoder() {
+		return NimbusReactiveJwtDecoder.withSecretKey(
+				new SecretKeySpec(SecuritySecrets.requireSigningKey(signingKey).getBytes(StandardCharsets.UTF_8), "HmacSHA256")).build();
+	}
+
+	//Los tokens del servidor de autorización traen los roles en el claim authorities y el usuario en user_name
+	private ReactiveJwtAuthenticationConverterAdapter jwtAuthenticationConverter() {
+		JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+		authoritiesConverter.setAuthoritiesClaimName("authorities");
+		authoritiesConverter.setAuthorityPrefix("");
+
+		JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+		converter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
+		converter.setPrincipalClaimName("user_name");
+		return new ReactiveJwtAuthenticationConverterAdapter(converter);
+	}
+
+	//Configuración de CORS para que el front end Angular pueda enviar el token en las peticiones
+	@Bean
+	public CorsConfigurationSource corsConfigurationSource() {
+		CorsConfiguration config = new CorsConfiguration();
+		config.setAllowedOrigins(Arrays.asList("http://localhost:4200"));
+		config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+		config.setAllowCredentials(true);
+		config.setAllowedHeaders(Arrays.asList("Content-Type", "Authorization", "If-None-Match", "If-Modified-Since", "If-Match"));
+		//Se exponen las cabeceras de caché para que el front end pueda usarlas en las peticiones condicionales
+		config.setExposedHeaders(Arrays.asList("ETag", "Last-Modified"));
+
+		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+		source.registerCorsConfiguration("/**", config);
+		return source;
+	}
+}
@@ -0,0 +1,73 @@
+package com.bolsadeideas.springboot.backend.apirest.auth;
+
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.config.annotation.web.configuration.EnableResourceServer;
+import org.springframework.security.oauth2.config.annotation.web.configuration.ResourceServerConfigurerAdapter;
+import org.springframework.security.oauth2.config.annotation.web.configurers.ResourceServerSecurityConfigurer;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+
+//Configuración del servidor de recursos que protege los endpoints de la Api
+//Cada petición se valida localmente verificando la firma del JWT, sin consultar la base de datos
+//La configuración aplica a la variante servlet, el perfil reactive usa ReactiveSecurityConfig
+@Profile("!reactive")
+@Configuration
+@EnableResourceServer
+public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
+
+	//Se inyecta el TokenStore JWT definido en AuthorizationServerConfig
+	@Autowired
+	private JwtTokenStore tokenStore;
+
+	@Override
+	public void configure(ResourceServerSecurityConfigurer resources) throws Exception {
+		//El token se acepta como parámetro solo en el stream de cambios, ver EventStreamTokenExtractor
+		resources.tokenStore(tokenStore).tokenExtractor(new EventStreamTokenExtractor()).stateless(true);
+	}
+
+	@Override
+	public void configure(HttpSecurity http) throws Exception {
+		//Los listados de clientes son públicos, el resto de endpoints requiere un token válido
+		//Prometheus no envía tokens OAuth2 al hacer scrape, por lo que /actuator/prometheus es público y su acceso
+		//se debe restringir en la red (solo desde el servidor de Prometheus)
+		http.authorizeRequests()
+		.antMatchers(HttpMethod.GET, "/api/clientes", "/api/clientes/page/**", "/api/clientes/scroll").permitAll()
+		.antMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+		.anyRequest().authenticated()
+		.and()
+		.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+		.and()
+		//Se deshabilita la cabecera Cache-Control por defecto (no-store) para permitir las peticiones condicionales
+		//con ETag, cada endpoint indica su propia política de caché
+		.headers().cacheControl().disable()
+		.and()
+		.cors().configurationSource(corsConfigurationSource());
+	}
+
+	//Configuración de CORS para que el front end Angular pueda enviar el token en las peticiones
+	@Bean
+	public CorsConfigurationSource corsConfigurationSource() {
+		CorsConfiguration config = new CorsConfiguration();
+		config.setAllowedOrigins(Arrays.asList("http://localhost:4200"));
+		config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
+		config.setAllowCredentials(true);
+		config.setAllowedHeaders(Arrays.asList("Content-Type", "Authorization", "If-None-Match", "If-Modified-Since", "If-Match"));
+		//Se exponen las cabeceras de caché para que el front end pueda usarlas en las peticiones condicionales,
+		//y las de la cola asíncrona para consultar el estado y saber cuándo reintentar
+		config.setExposedHeaders(Arrays.asList("ETag", "Last-Modified", "Location", "Retry-After"));
+
+		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+		source.registerCorsConfiguration("/**", config);
+		return source;
+	}
+}
@@ -0,0 +1,34 @@
+package com.bolsadeideas.springboot.backend.apirest.auth;
+
+import java.nio.charset.StandardCharsets;
+
+//Validaciones de los secretos de seguridad, se ejecutan al iniciar para que la aplicación no arranque con secretos
+//vacíos o débiles: no tienen valor por defecto y deben indicarse con JWT_SIGNING_KEY y OAUTH_CLIENT_SECRET
+final class SecuritySecrets {
+
+	//Largo mínimo de la llave, HMAC-SHA256 requiere al menos 256 bits
+	static final int MIN_SIGNING_KEY_BYTES = 32;
+
+	private SecuritySecrets() {
+	}
+
+	//Método para validar la llave con la que se firman y validan los tokens
+	static String requireSigningKey(String signingKey) {
+		if (signingKey == null || signingKey.trim().isEmpty()) {
+			throw new IllegalStateException("Debe indicarse la llave de firma de los tokens en JWT_SIGNING_KEY (app.security.jwt.signing-key)");
+		}
+		if (signingKey.getBytes(StandardCharsets.UTF_8).length < MIN_SIGNING_KEY_BYTES) {
+			throw new IllegalStateException("La llave de firma de los tokens (app.security.jwt.signing-key) debe tener al menos "
+					+ MIN_SIGNING_KEY_BYTES + " bytes");
+		}
+		return signingKey;
+	}
+
+	//Método para validar el secreto de la aplicación cliente autorizada a solicitar tokens
+	static String requireClientSecret(String clientSecret) {
+		if (clientSecret == null || clientSecret.trim().isEmpty()) {
+			throw new IllegalStateException("Debe indicarse el secreto de la aplicación cliente en OAUTH_CLIENT_SECRET (app.security.client-secret)");
+		}
+		return clientSecret;
+	}
+}
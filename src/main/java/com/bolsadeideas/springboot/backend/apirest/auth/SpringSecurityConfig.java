@@ -0,0 +1,56 @@
+package com.bolsadeideas.springboot.backend.apirest.auth;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+//Configuración de Spring Security para la autenticación de usuarios contra la base de datos
+//La configuración aplica a la variante servlet, el perfil reactive usa ReactiveSecurityConfig
+@Profile("!reactive")
+@EnableWebSecurity
+@Configuration
+public class SpringSecurityConfig extends WebSecurityConfigurerAdapter {
+
+	//Se inyecta la implementación de UserDetailsService (UsuarioService)
+	@Autowired
+	private UserDetailsService usuarioService;
+
+	//Codificador usado para validar las contraseñas almacenadas con BCrypt
+	//Se declara static para que otras configuraciones lo usen sin crear una referencia circular
+	@Bean
+	public static BCryptPasswordEncoder passwordEncoder() {
+		return new BCryptPasswordEncoder();
+	}
+
+	@Override
+	@Autowired
+	protected void configure(AuthenticationManagerBuilder auth) throws Exception {
+		auth.userDetailsService(this.usuarioService).passwordEncoder(passwordEncoder());
+	}
+
+	//Se expone el AuthenticationManager como bean para usarlo en el servidor de autorización
+	@Bean("authenticationManager")
+	@Override
+	protected AuthenticationManager authenticationManager() throws Exception {
+		return super.authenticationManager();
+	}
+
+	@Override
+	protected void configure(HttpSecurity http) throws Exception {
+		//Se deshabilita CSRF y la sesión HTTP, ya que la autenticación se hace con tokens JWT en cada petición
+		http.authorizeRequests()
+		.anyRequest().authenticated()
+		.and()
+		.csrf().disable()
+		.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+	}
+}
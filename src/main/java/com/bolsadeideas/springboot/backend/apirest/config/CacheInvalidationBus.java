@@ -0,0 +1,15 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.util.function.Consumer;
+
+//Canal por el que las instancias de la aplicación se avisan las invalidaciones de sus cachés locales
+//La implementación se elige con app.cache.invalidation.bus: local (una sola instancia y pruebas) o redis
+public interface CacheInvalidationBus {
+
+	//Envía el mensaje a todas las instancias suscritas, incluida la que lo publica
+	//Un error al publicar no debe afectar a la operación que lo originó
+	public void publish(CacheInvalidationMessage message);
+
+	//Registra el receptor de los mensajes publicados por cualquier instancia
+	public void subscribe(Consumer<CacheInvalidationMessage> listener);
+}
@@ -0,0 +1,61 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+//Mensaje que una instancia envía a las demás para que invaliden una entrada (o toda) una caché local
+//Se serializa a JSON en las implementaciones de CacheInvalidationBus que cruzan la red
+public class CacheInvalidationMessage {
+
+	//Identificador de la instancia que publicó el mensaje, para ignorar los mensajes propios
+	private String origin;
+
+	//Nombre de la caché a invalidar
+	private String cacheName;
+
+	//Clave de la entrada a invalidar, null para invalidar toda la caché
+	private Object key;
+
+	//Versión del valor que dejó obsoletas las entradas anteriores, null si se desconoce
+	private Long version;
+
+	//Constructor vacío requerido por Jackson
+	public CacheInvalidationMessage() {
+	}
+
+	public CacheInvalidationMessage(String origin, String cacheName, Object key, Long version) {
+		this.origin = origin;
+		this.cacheName = cacheName;
+		this.key = key;
+		this.version = version;
+	}
+
+	public String getOrigin() {
+		return origin;
+	}
+
+	public void setOrigin(String origin) {
+		this.origin = origin;
+	}
+
+	public String getCacheName() {
+		return cacheName;
+	}
+
+	public void setCacheName(String cacheName) {
+		this.cacheName = cacheName;
+	}
+
+	public Object getKey() {
+		return key;
+	}
+
+	public void setKey(Object key) {
+		this.key = key;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+}
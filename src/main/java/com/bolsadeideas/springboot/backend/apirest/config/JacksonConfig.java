@@ -0,0 +1,58 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+//Configuración de la serialización de las respuestas
+//Spring Boot registra en el ObjectMapper todos los beans de tipo Module y agrega los HttpMessageConverter
+//declarados como beans a los de Spring MVC
+@Configuration
+public class JacksonConfig {
+
+	//Módulo que reemplaza el acceso por reflexión a getters, setters y constructores por LambdaMetafactory,
+	//lo que reduce el costo de serializar y deserializar las entidades
+	//No se registra cuando la aplicación se ejecuta con el reinicio de devtools: las entidades se cargan con el
+	//RestartClassLoader y Blackbird con el class loader de la aplicación, por lo que no puede generar los accesos
+	//(LambdaConversionException) y las peticiones fallan con error 500
+	@Bean
+	@Conditional(RestartInactiveCondition.class)
+	public Module blackbirdModule() {
+		return new BlackbirdModule();
+	}
+
+	//Formatos binarios para los servicios internos, se eligen con la cabecera Accept (o Content-Type al enviar datos)
+	//Se crean con el builder de Spring Boot para que usen los mismos módulos y opciones que el JSON
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+	}
+
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+	}
+
+	//Condición que se cumple cuando las clases de la aplicación no se cargaron con el class loader de reinicio de devtools
+	//Se compara por nombre ya que devtools no está disponible en el jar de producción
+	static class RestartInactiveCondition implements Condition {
+
+		private static final String RESTART_CLASS_LOADER = "org.springframework.boot.devtools.restart.classloader.RestartClassLoader";
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return !RESTART_CLASS_LOADER.equals(JacksonConfig.class.getClassLoader().getClass().getName());
+		}
+	}
+}
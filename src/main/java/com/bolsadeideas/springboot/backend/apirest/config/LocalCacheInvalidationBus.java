@@ -0,0 +1,22 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+//Implementación en memoria de CacheInvalidationBus: entrega cada mensaje en el mismo hilo a los receptores
+//registrados en la JVM, por lo que solo sirve para una instancia o para simular varias en las pruebas
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+	private final List<Consumer<CacheInvalidationMessage>> listeners = new CopyOnWriteArrayList<Consumer<CacheInvalidationMessage>>();
+
+	@Override
+	public void publish(CacheInvalidationMessage message) {
+		listeners.forEach(listener -> listener.accept(message));
+	}
+
+	@Override
+	public void subscribe(Consumer<CacheInvalidationMessage> listener) {
+		listeners.add(listener);
+	}
+}
@@ -0,0 +1,21 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Configuración de las métricas de la aplicación
+//Las métricas por endpoint (http.server.requests), por consulta de repositorio (spring.data.repository.invocations),
+//del pool Hikari (hikaricp.*) y de Hibernate (hibernate.*) las registra Spring Boot automáticamente
+@Configuration
+public class MetricsConfig {
+
+	//Aspecto que registra como Timer los métodos anotados con @Timed, como los de los services
+	//Cada método queda con los tags class, method y exception, lo que permite contar los errores
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry registry) {
+		return new TimedAspect(registry);
+	}
+}
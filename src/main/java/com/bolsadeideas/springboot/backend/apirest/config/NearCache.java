@@ -0,0 +1,143 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+import org.springframework.cache.Cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+//Caché local que envuelve a la caché de Caffeine y registra las invalidaciones recibidas de NearCacheManager
+//Por cada clave invalidada se guarda durante tombstoneTtl la versión mínima aceptada (tombstone): una lectura que
+//empezó antes de la modificación, en esta u otra instancia o desde una réplica atrasada, no puede volver a guardar
+//un valor con una versión anterior
+//Los valores sin versión (por ejemplo las páginas) no se guardan durante tombstoneTtl después de invalidar toda la caché
+//Las operaciones de Spring Cache (@CacheEvict, @CachePut) no crean tombstones, solo invalidate e invalidateAll
+public class NearCache implements Cache {
+
+	private final Cache delegate;
+	private final long tombstoneNanos;
+	private final Function<Object, Long> versionOf;
+	//Versión mínima aceptada para cada clave invalidada recientemente
+	private final com.github.benmanes.caffeine.cache.Cache<Object, Long> tombstones;
+	//Instante (System.nanoTime) hasta el que no se guardan valores después de invalidar toda la caché
+	private volatile long blockedUntil = System.nanoTime();
+
+	public NearCache(Cache delegate, Duration tombstoneTtl, Function<Object, Long> versionOf) {
+		this.delegate = delegate;
+		this.tombstoneNanos = tombstoneTtl.toNanos();
+		this.versionOf = versionOf;
+		this.tombstones = Caffeine.newBuilder().expireAfterWrite(tombstoneTtl).build();
+	}
+
+	//Caché envuelta, usada para registrar sus métricas
+	public Cache getDelegate() {
+		return delegate;
+	}
+
+	//Método para invalidar las entradas de la clave con una versión anterior a la indicada
+	//Con version null (versión desconocida, por ejemplo al eliminar) se invalida cualquier versión
+	public void invalidate(Object key, Long version) {
+		long minimum = version != null ? version : Long.MAX_VALUE;
+		tombstones.asMap().merge(key, minimum, Math::max);
+		ValueWrapper current = delegate.get(key);
+		if (current != null) {
+			Long cached = versionOf.apply(current.get());
+			//La entrada se conserva solo si ya es la versión que originó la invalidación o una posterior
+			if (cached == null || cached < minimum) {
+				delegate.evict(key);
+			}
+		}
+	}
+
+	//Método para invalidar toda la caché
+	public void invalidateAll() {
+		blockedUntil = System.nanoTime() + tombstoneNanos;
+		delegate.clear();
+	}
+
+	//Método para saber si un valor leído puede guardarse según las invalidaciones recientes
+	private boolean accepts(Object key, Object value) {
+		if (System.nanoTime() - blockedUntil < 0) {
+			return false;
+		}
+		Long minimum = tombstones.getIfPresent(key);
+		if (minimum == null) {
+			return true;
+		}
+		Long version = versionOf.apply(value);
+		return version != null && version >= minimum;
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		return delegate.get(key);
+	}
+
+	@Override
+	public <T> T get(Object key, Class<T> type) {
+		return delegate.get(key, type);
+	}
+
+	@Override
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper current = delegate.get(key);
+		if (current != null) {
+			@SuppressWarnings("unchecked")
+			T value = (T) current.get();
+			return value;
+		}
+		T value;
+		try {
+			value = valueLoader.call();
+		} catch (Exception e) {
+			throw new ValueRetrievalException(key, valueLoader, e);
+		}
+		put(key, value);
+		return value;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		if (accepts(key, value)) {
+			delegate.put(key, value);
+		}
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		//Si el valor se descarta se informa como ausente, igual que si se hubiera guardado y expirado
+		return accepts(key, value) ? delegate.putIfAbsent(key, value) : delegate.get(key);
+	}
+
+	@Override
+	public void evict(Object key) {
+		delegate.evict(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		return delegate.evictIfPresent(key);
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		return delegate.invalidate();
+	}
+}
@@ -0,0 +1,84 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.util.StringUtils;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//Configuración de las cachés locales (near-cache) coherentes entre las instancias detrás del balanceador
+//Las cachés se crean con las mismas propiedades spring.cache.* que usaba la configuración automática de Spring Boot
+//y las invalidaciones se envían por el bus indicado en app.cache.invalidation.bus (local o redis, perfil "redis")
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class NearCacheConfig {
+
+	//Tiempo durante el que una invalidación impide guardar versiones anteriores, debe cubrir lo que tarda una lectura
+	//iniciada antes de la modificación, incluido el atraso de las réplicas
+	@Value("${app.cache.invalidation.tombstone-ttl:5s}")
+	private Duration tombstoneTtl;
+
+	//Canal de Redis en el que se publican las invalidaciones
+	@Value("${app.cache.invalidation.channel:clientes-cache-invalidation}")
+	private String channel;
+
+	//Al definir el CacheManager se deshabilita el de Spring Boot, por lo que las cachés de Caffeine se crean aquí
+	//Las entradas de Cliente se comparan por su campo @Version
+	@Bean
+	public NearCacheManager cacheManager(CacheProperties cacheProperties, CacheInvalidationBus cacheInvalidationBus) {
+		CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+		if (StringUtils.hasText(cacheProperties.getCaffeine().getSpec())) {
+			caffeineCacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+		}
+		if (!cacheProperties.getCacheNames().isEmpty()) {
+			caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+		}
+		return new NearCacheManager(caffeineCacheManager, cacheInvalidationBus, tombstoneTtl,
+				value -> value instanceof Cliente ? ((Cliente) value).getVersion() : null);
+	}
+
+	@Bean
+	public NearCacheMeterBinderProvider nearCacheMeterBinderProvider() {
+		return new NearCacheMeterBinderProvider();
+	}
+
+	//Bus en memoria, solo coherente dentro de una instancia
+	@Bean
+	@ConditionalOnProperty(name = "app.cache.invalidation.bus", havingValue = "local", matchIfMissing = true)
+	public CacheInvalidationBus localCacheInvalidationBus() {
+		return new LocalCacheInvalidationBus();
+	}
+
+	//Bus con Redis Pub/Sub, usa la conexión configurada en spring.redis.*
+	@Bean
+	@ConditionalOnProperty(name = "app.cache.invalidation.bus", havingValue = "redis")
+	public RedisCacheInvalidationBus redisCacheInvalidationBus(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+		return new RedisCacheInvalidationBus(redisTemplate, channel, objectMapper);
+	}
+
+	//Contenedor que mantiene la suscripción al canal y entrega los mensajes al bus
+	//Ningún bean depende de él, por lo que se crea al iniciar aunque esté activa la inicialización diferida
+	@Bean
+	@Lazy(false)
+	@ConditionalOnProperty(name = "app.cache.invalidation.bus", havingValue = "redis")
+	public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+			RedisCacheInvalidationBus redisCacheInvalidationBus) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(connectionFactory);
+		container.addMessageListener(redisCacheInvalidationBus, new ChannelTopic(channel));
+		return container;
+	}
+}
@@ -0,0 +1,87 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+//CacheManager que entrega las cachés locales envueltas en NearCache y las mantiene coherentes entre instancias:
+//invalidate e invalidateAll se aplican en esta instancia y se publican en el CacheInvalidationBus,
+//los mensajes de las demás instancias se aplican al recibirse
+public class NearCacheManager implements CacheManager {
+
+	//Identificador de esta instancia, los mensajes que publica se ignoran al recibirlos
+	private final String nodeId = UUID.randomUUID().toString();
+	private final CacheManager delegate;
+	private final CacheInvalidationBus bus;
+	private final Duration tombstoneTtl;
+	private final Function<Object, Long> versionOf;
+	private final ConcurrentMap<String, NearCache> caches = new ConcurrentHashMap<String, NearCache>();
+
+	public NearCacheManager(CacheManager delegate, CacheInvalidationBus bus, Duration tombstoneTtl, Function<Object, Long> versionOf) {
+		this.delegate = delegate;
+		this.bus = bus;
+		this.tombstoneTtl = tombstoneTtl;
+		this.versionOf = versionOf;
+		bus.subscribe(this::onMessage);
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	@Override
+	public NearCache getCache(String name) {
+		NearCache cache = caches.get(name);
+		if (cache != null) {
+			return cache;
+		}
+		Cache target = delegate.getCache(name);
+		return target != null ? caches.computeIfAbsent(name, n -> new NearCache(target, tombstoneTtl, versionOf)) : null;
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return delegate.getCacheNames();
+	}
+
+	//Método para invalidar en todas las instancias las entradas de la clave con una versión anterior a la indicada,
+	//version null si se desconoce
+	public void invalidate(String cacheName, Object key, Long version) {
+		apply(cacheName, key, version);
+		bus.publish(new CacheInvalidationMessage(nodeId, cacheName, key, version));
+	}
+
+	//Método para invalidar toda la caché en todas las instancias
+	public void invalidateAll(String cacheName) {
+		apply(cacheName, null, null);
+		bus.publish(new CacheInvalidationMessage(nodeId, cacheName, null, null));
+	}
+
+	//Método que recibe los mensajes del bus
+	private void onMessage(CacheInvalidationMessage message) {
+		if (nodeId.equals(message.getOrigin())) {
+			return;
+		}
+		//Al deserializar el JSON los números pequeños llegan como Integer, las claves numéricas de las cachés son Long
+		Object key = message.getKey() instanceof Number ? Long.valueOf(((Number) message.getKey()).longValue()) : message.getKey();
+		apply(message.getCacheName(), key, message.getVersion());
+	}
+
+	private void apply(String cacheName, Object key, Long version) {
+		NearCache cache = getCache(cacheName);
+		if (cache == null) {
+			return;
+		}
+		if (key == null) {
+			cache.invalidateAll();
+		} else {
+			cache.invalidate(key, version);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+//Registra las métricas cache.* de la caché de Caffeine envuelta en cada NearCache,
+//Spring Boot solo reconoce las instancias de CaffeineCache
+public class NearCacheMeterBinderProvider implements CacheMeterBinderProvider<NearCache> {
+
+	@Override
+	public MeterBinder getMeterBinder(NearCache cache, Iterable<Tag> tags) {
+		if (cache.getDelegate() instanceof CaffeineCache) {
+			return new CaffeineCacheMetrics<Object, Object, com.github.benmanes.caffeine.cache.Cache<Object, Object>>(
+					((CaffeineCache) cache.getDelegate()).getNativeCache(), cache.getName(), tags);
+		}
+		return null;
+	}
+}
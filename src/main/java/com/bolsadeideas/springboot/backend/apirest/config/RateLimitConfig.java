@@ -0,0 +1,58 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Configuración del límite de peticiones por consumidor y del límite de peticiones simultáneas de la Api
+//Se deshabilita con app.rate-limit.enabled=false
+@Profile("!reactive")
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+	//Cantidad máxima de tokens que puede acumular cada consumidor (ráfaga permitida)
+	@Value("${app.rate-limit.capacity:100}")
+	private int capacity;
+
+	//Tokens que recupera cada consumidor por segundo (tasa sostenida)
+	@Value("${app.rate-limit.refill-per-second:20}")
+	private double refillPerSecond;
+
+	//Cantidad máxima de peticiones a la Api atendiéndose al mismo tiempo, las siguientes se responden con 503
+	@Value("${app.rate-limit.max-concurrent:100}")
+	private int maxConcurrent;
+
+	//Tiempo que se sugiere esperar cuando se descarta una petición por exceso de peticiones simultáneas
+	@Value("${app.rate-limit.shed-retry-after:1s}")
+	private Duration shedRetryAfter;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	//Los buckets de los consumidores que no envían peticiones durante 10 minutos se descartan
+	@Bean
+	public RateLimitInterceptor rateLimitInterceptor() {
+		TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(capacity, refillPerSecond, Duration.ofMinutes(10));
+		return new RateLimitInterceptor(rateLimiter, maxConcurrent, Math.max(1, shedRetryAfter.getSeconds()), objectMapper, meterRegistry);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(rateLimitInterceptor()).addPathPatterns("/api/**");
+	}
+}
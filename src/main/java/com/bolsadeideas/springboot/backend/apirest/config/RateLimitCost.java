@@ -0,0 +1,21 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//Anotación para indicar cuántos tokens del límite de peticiones consume un endpoint
+//Los endpoints sin la anotación consumen 1 token, los más costosos para la base de datos deben indicar un valor mayor
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RateLimitCost {
+
+	int value();
+
+	//Indica si la petición ocupa un lugar del límite de peticiones simultáneas mientras está abierta,
+	//se usa false en las conexiones de larga duración (SSE) que no usan la base de datos mientras esperan eventos
+	boolean concurrent() default true;
+}
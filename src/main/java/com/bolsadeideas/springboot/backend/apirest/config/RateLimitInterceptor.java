@@ -0,0 +1,137 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Interceptor que aplica a los endpoints de la Api el límite de peticiones por consumidor y el límite de peticiones
+//simultáneas, rechazando la petición antes de que el controlador obtenga una conexión a la base de datos
+//Se ejecuta después de los filtros de Spring Security, por lo que el consumidor se identifica por el usuario
+//(o el client_id) del token y solo las peticiones anónimas se identifican por IP
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+	//Atributo de la petición que indica que ocupa un lugar del límite de peticiones simultáneas
+	private static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".permit";
+
+	private final TokenBucketRateLimiter rateLimiter;
+	private final int maxConcurrent;
+	private final long shedRetryAfterSeconds;
+	private final ObjectMapper objectMapper;
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final Counter allowed;
+	private final Counter throttled;
+	private final Counter shed;
+
+	public RateLimitInterceptor(TokenBucketRateLimiter rateLimiter, int maxConcurrent, long shedRetryAfterSeconds,
+			ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		this.rateLimiter = rateLimiter;
+		this.maxConcurrent = maxConcurrent;
+		this.shedRetryAfterSeconds = shedRetryAfterSeconds;
+		this.objectMapper = objectMapper;
+
+		//Métricas del estado del limitador: peticiones por resultado, peticiones en curso y consumidores activos
+		allowed = Counter.builder("api.ratelimit.requests").tag("result", "allowed").register(meterRegistry);
+		throttled = Counter.builder("api.ratelimit.requests").tag("result", "throttled").register(meterRegistry);
+		shed = Counter.builder("api.ratelimit.requests").tag("result", "shed").register(meterRegistry);
+		Gauge.builder("api.ratelimit.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+		Gauge.builder("api.ratelimit.buckets", rateLimiter, TokenBucketRateLimiter::size).register(meterRegistry);
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+		//Al continuar una petición asíncrona (exportación en streaming) ya se validó en el despacho inicial
+		if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod)) {
+			return true;
+		}
+
+		//Validar si el consumidor tiene tokens suficientes para el costo del endpoint
+		long waitNanos = rateLimiter.tryConsume(consumerKey(request), cost((HandlerMethod) handler));
+		if (waitNanos > 0) {
+			throttled.increment();
+			long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+			reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, "Se superó el límite de peticiones, intente más tarde");
+			return false;
+		}
+
+		//Las conexiones de larga duración no cuentan para el límite de peticiones simultáneas
+		if (!concurrent((HandlerMethod) handler)) {
+			allowed.increment();
+			return true;
+		}
+
+		//Validar si hay lugar para otra petición simultánea, de lo contrario se descarta en lugar de esperar una conexión
+		if (inFlight.incrementAndGet() > maxConcurrent) {
+			inFlight.decrementAndGet();
+			shed.increment();
+			reject(response, HttpStatus.SERVICE_UNAVAILABLE, shedRetryAfterSeconds, "El servidor está ocupado, intente más tarde");
+			return false;
+		}
+		request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+		allowed.increment();
+		return true;
+	}
+
+	//En las peticiones asíncronas este método se ejecuta al terminar el último despacho, cuando ya se envió la respuesta
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+			request.removeAttribute(PERMIT_ATTRIBUTE);
+			inFlight.decrementAndGet();
+		}
+	}
+
+	//Método para identificar al consumidor: usuario autenticado (o client_id en los tokens sin usuario) o la IP
+	//Detrás de un proxy la IP del cliente la resuelve Tomcat desde X-Forwarded-For (server.forward-headers-strategy=native),
+	//pero solo si la conexión viene de un proxy de server.tomcat.remoteip.internal-proxies; de otro modo la cabecera
+	//se ignora y un cliente no puede cambiar de bucket falsificándola
+	private String consumerKey(HttpServletRequest request) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+			return "user:" + authentication.getName();
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+
+	private int cost(HandlerMethod handler) {
+		RateLimitCost cost = handler.getMethodAnnotation(RateLimitCost.class);
+		return cost != null ? cost.value() : 1;
+	}
+
+	private boolean concurrent(HandlerMethod handler) {
+		RateLimitCost cost = handler.getMethodAnnotation(RateLimitCost.class);
+		return cost == null || cost.concurrent();
+	}
+
+	//Método para escribir la respuesta de rechazo con el mismo formato de mapa que usan los controladores
+	private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String mensaje) throws IOException {
+		Map<String, Object> body = new HashMap<String, Object>();
+		body.put("mensaje", mensaje);
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		objectMapper.writeValue(response.getOutputStream(), body);
+	}
+}
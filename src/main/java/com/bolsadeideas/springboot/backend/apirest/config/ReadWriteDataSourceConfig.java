@@ -0,0 +1,101 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+//Configuración opcional para separar lecturas y escrituras: spring.datasource es la base de datos primaria
+//y app.datasource.replicas.urls las réplicas que atienden las transacciones readOnly
+//Se activa con app.datasource.replicas.enabled=true (perfil "replicas")
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+	//Urls JDBC de las réplicas separadas por coma, usan las mismas credenciales de la primaria salvo que se indiquen
+	@Value("${app.datasource.replicas.urls}")
+	private String[] replicaUrls;
+
+	@Value("${app.datasource.replicas.username:${spring.datasource.username}}")
+	private String replicaUsername;
+
+	@Value("${app.datasource.replicas.password:${spring.datasource.password}}")
+	private String replicaPassword;
+
+	//Estrategia de selección de réplica: round-robin o least-connections
+	@Value("${app.datasource.replicas.strategy:round-robin}")
+	private ReadWriteRoutingDataSource.Strategy strategy;
+
+	//Tiempo que una réplica queda fuera de la rotación después de fallar al entregar una conexión
+	@Value("${app.datasource.replicas.eject-duration:30s}")
+	private Duration ejectDuration;
+
+	//Tiempo durante el que las lecturas de un usuario van a la primaria después de que escribe, 0 para deshabilitar
+	@Value("${app.datasource.replicas.read-your-writes-window:5s}")
+	private Duration readYourWritesWindow;
+
+	//Pool de la base de datos primaria, configurado con las mismas propiedades spring.datasource.*
+	@Bean
+	@ConfigurationProperties(prefix = "spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	//DataSource que enruta cada conexión a la primaria o a una réplica, al cerrarse cierra los pools de las réplicas
+	@Bean
+	public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource) {
+		List<HikariDataSource> replicas = new ArrayList<HikariDataSource>();
+		for (String url : replicaUrls) {
+			if (url.trim().isEmpty()) {
+				continue;
+			}
+			HikariDataSource replica = new HikariDataSource();
+			replica.setPoolName("replica-" + (replicas.size() + 1));
+			replica.setJdbcUrl(url.trim());
+			replica.setUsername(replicaUsername);
+			replica.setPassword(replicaPassword);
+			replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+			replica.setReadOnly(true);
+			//No se falla al iniciar si la réplica no está disponible, se retira al pedirle la primera conexión
+			replica.setInitializationFailTimeout(-1);
+			replicas.add(replica);
+		}
+
+		if (replicas.isEmpty()) {
+			throw new IllegalStateException("app.datasource.replicas.enabled requiere indicar al menos una url en app.datasource.replicas.urls");
+		}
+		return new ReadWriteRoutingDataSource(primaryDataSource, replicas, strategy, ejectDuration, readYourWritesWindow);
+	}
+
+	//DataSource que usan JPA y JdbcTemplate, la conexión real se obtiene al ejecutar la primera sentencia
+	//para que el enrutamiento vea si la transacción es de solo lectura
+	@Bean
+	@Primary
+	public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+		return new LazyConnectionDataSourceProxy(routingDataSource);
+	}
+
+	//Con open-in-view el EntityManager dura toda la petición y Hibernate conserva la conexión hasta cerrarlo,
+	//por lo que una escritura posterior a una lectura reutilizaría la conexión de la réplica
+	//Se libera la conexión al terminar cada transacción para que la siguiente se enrute de nuevo
+	@Bean
+	public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+		return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+}
@@ -0,0 +1,178 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+//DataSource que envía las transacciones de solo lectura a una réplica y el resto (escrituras y consultas fuera de
+//transacción) a la base de datos primaria
+//Debe usarse detrás de un LazyConnectionDataSourceProxy para que la conexión se obtenga cuando la transacción
+//ya indicó si es de solo lectura
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+	//Estrategias para elegir la réplica que atiende cada transacción de lectura
+	public enum Strategy {
+		ROUND_ROBIN, LEAST_CONNECTIONS
+	}
+
+	private final DataSource primary;
+	private final List<Replica> replicas = new ArrayList<Replica>();
+	private final Strategy strategy;
+	private final long ejectMillis;
+	private final AtomicInteger next = new AtomicInteger();
+
+	//Usuarios que escribieron recientemente, sus lecturas se envían a la primaria mientras dure la ventana
+	//para que vean sus propios cambios aunque la réplica aún no los haya recibido
+	private final Cache<String, Boolean> recentWriters;
+
+	public ReadWriteRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Strategy strategy,
+			Duration ejectDuration, Duration readYourWritesWindow) {
+		this.primary = primary;
+		for (HikariDataSource replica : replicas) {
+			this.replicas.add(new Replica(replica));
+		}
+		this.strategy = strategy;
+		this.ejectMillis = ejectDuration.toMillis();
+		this.recentWriters = readYourWritesWindow.isZero() ? null : Caffeine.newBuilder()
+				.expireAfterWrite(readYourWritesWindow.toMillis(), TimeUnit.MILLISECONDS)
+				.maximumSize(100000)
+				.build();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		Replica replica = determineReplica();
+		if (replica == null) {
+			return primary.getConnection();
+		}
+
+		try {
+			return replica.dataSource.getConnection();
+		} catch (SQLException e) {
+			//Si la réplica no responde se retira de la rotación y la lectura se atiende en la primaria
+			replica.eject(ejectMillis);
+			log.warn("Réplica {} retirada durante {} ms: {}", replica.dataSource.getPoolName(), ejectMillis, e.getMessage());
+			return primary.getConnection();
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		//Las credenciales explícitas solo se usan contra la primaria
+		return primary.getConnection(username, password);
+	}
+
+	//Se cierran los pools de las réplicas, el de la primaria lo cierra Spring al ser un bean propio
+	@Override
+	public void close() {
+		for (Replica replica : replicas) {
+			replica.dataSource.close();
+		}
+	}
+
+	//Método para obtener la réplica que debe atender la conexión actual, null si debe usarse la primaria
+	private Replica determineReplica() {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return null;
+		}
+
+		String caller = currentCaller();
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			//Se registra que el usuario escribió para aplicar la ventana de lectura de sus propias escrituras
+			if (recentWriters != null && caller != null) {
+				recentWriters.put(caller, Boolean.TRUE);
+			}
+			return null;
+		}
+
+		if (recentWriters != null && caller != null && recentWriters.getIfPresent(caller) != null) {
+			return null;
+		}
+		return selectReplica();
+	}
+
+	//Método para elegir una réplica disponible según la estrategia configurada, null si todas están retiradas
+	private Replica selectReplica() {
+		long now = System.currentTimeMillis();
+		int size = replicas.size();
+		Replica selected = null;
+
+		if (strategy == Strategy.LEAST_CONNECTIONS) {
+			int minActive = Integer.MAX_VALUE;
+			for (Replica replica : replicas) {
+				int active = replica.activeConnections();
+				if (replica.isAvailable(now) && active < minActive) {
+					selected = replica;
+					minActive = active;
+				}
+			}
+			return selected;
+		}
+
+		//Round robin: se recorren las réplicas desde la siguiente en turno saltando las retiradas
+		int start = Math.floorMod(next.getAndIncrement(), size);
+		for (int i = 0; i < size; i++) {
+			Replica replica = replicas.get((start + i) % size);
+			if (replica.isAvailable(now)) {
+				return replica;
+			}
+		}
+		return null;
+	}
+
+	//Método para identificar al usuario autenticado de la petición actual, null si es anónimo
+	private String currentCaller() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+			return null;
+		}
+		return authentication.getName();
+	}
+
+	//Réplica junto al instante hasta el que permanece retirada, al cumplirse vuelve a probarse con la siguiente lectura
+	private static class Replica {
+
+		private final HikariDataSource dataSource;
+		private volatile long ejectedUntil;
+
+		private Replica(HikariDataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		private boolean isAvailable(long now) {
+			return now >= ejectedUntil;
+		}
+
+		private void eject(long millis) {
+			ejectedUntil = System.currentTimeMillis() + millis;
+		}
+
+		//El pool se crea con la primera conexión, antes de eso no tiene conexiones activas
+		private int activeConnections() {
+			HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+			return pool != null ? pool.getActiveConnections() : 0;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//Implementación de CacheInvalidationBus con Redis Pub/Sub: cada instancia publica los mensajes en JSON en un canal
+//y recibe los de todas las instancias a través del RedisMessageListenerContainer configurado en NearCacheConfig
+//Pub/Sub no guarda los mensajes: una instancia desconectada los pierde y sus entradas quedan vigentes hasta que
+//expiran según spring.cache.caffeine.spec
+public class RedisCacheInvalidationBus implements CacheInvalidationBus, MessageListener {
+
+	private static final Logger log = LoggerFactory.getLogger(RedisCacheInvalidationBus.class);
+
+	private final StringRedisTemplate redisTemplate;
+	private final String channel;
+	private final ObjectMapper objectMapper;
+	private final List<Consumer<CacheInvalidationMessage>> listeners = new CopyOnWriteArrayList<Consumer<CacheInvalidationMessage>>();
+
+	public RedisCacheInvalidationBus(StringRedisTemplate redisTemplate, String channel, ObjectMapper objectMapper) {
+		this.redisTemplate = redisTemplate;
+		this.channel = channel;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public void publish(CacheInvalidationMessage message) {
+		try {
+			redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+		} catch (JsonProcessingException | DataAccessException e) {
+			//Se registra el error sin propagarlo, la operación que originó la invalidación ya se confirmó
+			log.warn("No se pudo publicar la invalidación de la caché {}: {}", message.getCacheName(), e.getMessage());
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<CacheInvalidationMessage> listener) {
+		listeners.add(listener);
+	}
+
+	//Método que invoca el RedisMessageListenerContainer por cada mensaje recibido en el canal
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		try {
+			CacheInvalidationMessage invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+			listeners.forEach(listener -> listener.accept(invalidation));
+		} catch (IOException e) {
+			log.warn("Mensaje de invalidación de caché inválido: {}", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+//Límite de peticiones por consumidor con un token bucket por clave
+//Cada bucket se guarda como un único AtomicLong con el instante hasta el que ya se consumieron sus tokens (algoritmo GCRA):
+//los tokens disponibles son el tiempo transcurrido desde ese instante, hasta la capacidad del bucket,
+//así consumir tokens es una única operación compareAndSet sin bloqueos
+public class TokenBucketRateLimiter {
+
+	//Tiempo que tarda en reponerse un token
+	private final long nanosPerToken;
+	//Cantidad máxima de tokens acumulables, expresada como tiempo
+	private final long burstNanos;
+	private final int capacity;
+	//Los buckets de los consumidores inactivos se descartan, al volver empiezan con el bucket lleno
+	private final Cache<String, AtomicLong> buckets;
+
+	public TokenBucketRateLimiter(int capacity, double refillPerSecond, Duration idleExpiration) {
+		this.capacity = capacity;
+		this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+		this.burstNanos = nanosPerToken * capacity;
+		this.buckets = Caffeine.newBuilder()
+				.expireAfterAccess(idleExpiration.toMillis(), TimeUnit.MILLISECONDS)
+				.maximumSize(100000)
+				.build();
+	}
+
+	//Método para consumir los tokens indicados del bucket de la clave
+	//Devuelve 0 si se consumieron o el tiempo en nanosegundos que se debe esperar para tenerlos disponibles
+	public long tryConsume(String key, int tokens) {
+		long now = System.nanoTime();
+		//Un bucket nuevo empieza lleno
+		AtomicLong consumedUntil = buckets.get(key, k -> new AtomicLong(now - burstNanos));
+		//Un costo mayor a la capacidad nunca se alcanzaría, se limita a vaciar el bucket completo
+		long cost = Math.min(tokens, capacity) * nanosPerToken;
+
+		while (true) {
+			long current = consumedUntil.get();
+			long next = Math.max(current, now - burstNanos) + cost;
+			long wait = next - now;
+			if (wait > 0) {
+				return wait;
+			}
+			if (consumedUntil.compareAndSet(current, next)) {
+				return 0;
+			}
+		}
+	}
+
+	//Cantidad de consumidores con bucket activo
+	public long size() {
+		return buckets.estimatedSize();
+	}
+}
@@ -0,0 +1,50 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+//Configuración opcional para atender cada petición (y el trabajo de service/dao que se ejecuta en ella)
+//en un hilo virtual en lugar del pool de hilos de plataforma de Tomcat
+//Se activa con app.threads.virtual.enabled=true (perfil "virtual") y requiere ejecutar la aplicación con Java 21 o superior
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+	//Executor que crea un hilo virtual por cada tarea
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService virtualThreadExecutor() {
+		try {
+			//Se obtiene por reflexión ya que el proyecto compila con Java 17, donde el método no existe
+			ExecutorService executor = (ExecutorService) Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			log.info("Las peticiones se atenderán en hilos virtuales");
+			return executor;
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("app.threads.virtual.enabled requiere ejecutar la aplicación con Java 21 o superior", e);
+		}
+	}
+
+	//Se reemplaza el executor del conector de Tomcat para que cada petición se ejecute en un hilo virtual
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+		return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+	}
+
+	//Se usa el mismo executor para las peticiones asíncronas, como la exportación en streaming de clientes
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor()));
+	}
+}
@@ -0,0 +1,69 @@
+package com.bolsadeideas.springboot.backend.apirest.controllers;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+
+//Iterador sobre los elementos del body de una operación masiva que se detiene en el primer error de lectura
+//Los bloques anteriores ya están confirmados cuando se lee un elemento inválido, por lo que en lugar de propagar
+//la excepción (y perder el resultado parcial) se termina la iteración y se guarda el error para informarlo
+class BatchBodyIterator<T> implements Iterator<T> {
+
+	private final MappingIterator<T> delegate;
+
+	private T next;
+
+	//Se usa una bandera ya que el body puede traer elementos null, que el servicio reporta como error del elemento
+	private boolean fetched;
+
+	private RuntimeException error;
+
+	//Cantidad de elementos leídos correctamente, el elemento con ese índice es el que no se pudo leer
+	private int read;
+
+	BatchBodyIterator(MappingIterator<T> delegate) {
+		this.delegate = delegate;
+	}
+
+	//Se lee el siguiente elemento por adelantado, ya que MappingIterator puede fallar tanto en hasNext
+	//(JSON mal formado) como en next (valor que no se puede convertir al tipo)
+	@Override
+	public boolean hasNext() {
+		if (fetched) {
+			return true;
+		}
+		if (error != null) {
+			return false;
+		}
+		try {
+			if (delegate.hasNext()) {
+				next = delegate.next();
+				fetched = true;
+			}
+		} catch (RuntimeException e) {
+			error = e;
+		}
+		return fetched;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		T value = next;
+		next = null;
+		fetched = false;
+		read++;
+		return value;
+	}
+
+	public RuntimeException getError() {
+		return error;
+	}
+
+	public int getRead() {
+		return read;
+	}
+}
@@ -0,0 +1,124 @@
+package com.bolsadeideas.springboot.backend.apirest.controllers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bolsadeideas.springboot.backend.apirest.config.RateLimitCost;
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.bolsadeideas.springboot.backend.apirest.models.services.ClienteBatchResult;
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteBatchService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//Anotación para habilitar CORS y que la aplicación sea consumida por un cliente externo
+//con origins se indican las IPs permitidas
+@CrossOrigin(origins = {"http://localhost:4200"})
+//Anotación para indicar que es un controlador de una Api REST
+//Con la anotación Profile el controlador solo se registra en la variante servlet (bloqueante) de la Api
+@Profile("!reactive")
+@RestController
+//Anotación para indicar el endpoint de la Api
+@RequestMapping("/api")
+public class ClienteBatchRestController {
+
+	//Con esta anotación se usa inyección de dependencias
+	@Autowired
+	private IClienteBatchService clienteBatchService;
+
+	//Se inyecta el ObjectMapper configurado por Spring para leer los elementos a medida que llegan
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	//Se mapea el método a la Api como tipo POST
+	//El body puede ser un arreglo JSON o NDJSON (un cliente por línea), en ambos casos se lee como InputStream
+	//para procesar los elementos por bloques sin cargar toda la petición en memoria
+	//Las operaciones masivas consumen más tokens del límite de peticiones
+	@RateLimitCost(50)
+	@PostMapping(value = "/clientes/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+	public ResponseEntity<?> create(InputStream body) {
+		try (MappingIterator<Cliente> clientes = objectMapper.readerFor(Cliente.class).readValues(body)) {
+			BatchBodyIterator<Cliente> items = new BatchBodyIterator<Cliente>(clientes);
+			//Llamar al service para crear los clientes por bloques
+			return response(clienteBatchService.insertAll(items), items, "creados", HttpStatus.CREATED);
+		} catch (IOException e) {
+			return badRequest(e);
+		}
+	}
+
+	//Se mapea el método a la Api como tipo PUT
+	//Cada elemento debe incluir el Id del cliente a actualizar
+	//Las operaciones masivas consumen más tokens del límite de peticiones
+	@RateLimitCost(50)
+	@PutMapping(value = "/clientes/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+	public ResponseEntity<?> update(InputStream body) {
+		try (MappingIterator<Cliente> clientes = objectMapper.readerFor(Cliente.class).readValues(body)) {
+			BatchBodyIterator<Cliente> items = new BatchBodyIterator<Cliente>(clientes);
+			//Llamar al service para actualizar los clientes por bloques
+			return response(clienteBatchService.updateAll(items), items, "actualizados", HttpStatus.OK);
+		} catch (IOException e) {
+			return badRequest(e);
+		}
+	}
+
+	//Se mapea el método a la Api como tipo DELETE
+	//El body es un arreglo JSON (o NDJSON) con los Ids de los clientes a eliminar
+	//Las operaciones masivas consumen más tokens del límite de peticiones
+	@RateLimitCost(50)
+	@DeleteMapping(value = "/clientes/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+	public ResponseEntity<?> delete(InputStream body) {
+		try (MappingIterator<Long> ids = objectMapper.readerFor(Long.class).readValues(body)) {
+			BatchBodyIterator<Long> items = new BatchBodyIterator<Long>(ids);
+			//Llamar al service para eliminar los clientes por bloques
+			return response(clienteBatchService.deleteAll(items), items, "eliminados", HttpStatus.OK);
+		} catch (IOException e) {
+			return badRequest(e);
+		}
+	}
+
+	//Método para armar la respuesta con la cantidad de elementos procesados y los errores por elemento
+	//Si algún elemento falló se devuelve estado MULTI_STATUS para indicar un resultado parcial
+	//Si el body no se pudo leer completo se devuelve BAD_REQUEST con el resultado de los elementos anteriores,
+	//que ya están confirmados, y el índice del elemento desde el que se debe reintentar
+	private ResponseEntity<Map<String, Object>> response(ClienteBatchResult result, BatchBodyIterator<?> items, String accion, HttpStatus status) {
+		Map<String, Object> response = new HashMap<String, Object>();
+		//Adicionar mensaje de resultado
+		response.put("mensaje", "Clientes ".concat(accion).concat(": ").concat(String.valueOf(result.getProcesados())));
+		response.put("procesados", result.getProcesados());
+		//Adicionar listado de errores por elemento
+		response.put("errors", result.getErrores());
+		if (items.getError() != null) {
+			response.put("mensaje", "Error al leer el elemento ".concat(String.valueOf(items.getRead()))
+					.concat(" de la petición, clientes ").concat(accion).concat(": ").concat(String.valueOf(result.getProcesados())));
+			response.put("leidos", items.getRead());
+			//Adicionar mensaje de la excepción
+			response.put("error", items.getError().getMessage());
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
+		}
+		return new ResponseEntity<Map<String, Object>>(response, result.hasErrors() ? HttpStatus.MULTI_STATUS : status);
+	}
+
+	//Método para armar la respuesta cuando el body no se puede leer
+	private ResponseEntity<Map<String, Object>> badRequest(Exception e) {
+		Map<String, Object> response = new HashMap<String, Object>();
+		//Adicionar mensaje de error
+		response.put("mensaje", "Error al leer el contenido de la petición");
+		//Adicionar mensaje de la excepción
+		response.put("error", e.getMessage());
+		//Se añade el mensaje de error al response a devolver
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
+	}
+}
@@ -0,0 +1,47 @@
+package com.bolsadeideas.springboot.backend.apirest.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bolsadeideas.springboot.backend.apirest.config.RateLimitCost;
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteChangeService;
+
+import reactor.core.publisher.Flux;
+
+//Anotación para habilitar CORS y que la aplicación sea consumida por un cliente externo
+//con origins se indican las IPs permitidas
+@CrossOrigin(origins = {"http://localhost:4200"})
+//Anotación para indicar que es un controlador de una Api REST
+@Profile("!reactive")
+@RestController
+//Anotación para indicar el endpoint de la Api
+@RequestMapping("/api")
+public class ClienteChangeRestController {
+
+	//Con esta anotación se usa inyección de dependencias
+	@Autowired
+	private IClienteChangeService clienteChangeService;
+
+	//Se mapea el método a la Api como tipo GET con Server-Sent Events
+	//Envía un evento (creado, actualizado o eliminado) por cada cambio confirmado de un cliente, el Id de cada evento
+	//es su posición; al reconectarse se envía en Last-Event-ID (o en lastEventId, para clientes que no pueden
+	//enviar cabeceras) y se reciben los eventos siguientes
+	//La conexión se cierra al cumplirse spring.mvc.async.request-timeout y el consumidor debe reconectarse
+	//Requiere un token; como EventSource no puede enviar la cabecera Authorization, el token se puede enviar en el
+	//parámetro access_token (new EventSource('/api/clientes/changes?access_token=' + token)), ver EventStreamTokenExtractor
+	@RateLimitCost(value = 1, concurrent = false)
+	@GetMapping(value = "/clientes/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<Object>> changes(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventIdHeader,
+			@RequestParam(name = "lastEventId", required = false) String lastEventIdParam) {
+		//Se da prioridad a la cabecera, que el navegador envía automáticamente al reconectarse
+		return clienteChangeService.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+	}
+}
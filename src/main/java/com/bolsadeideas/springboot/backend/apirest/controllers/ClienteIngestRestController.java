@@ -0,0 +1,140 @@
+package com.bolsadeideas.springboot.backend.apirest.controllers;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.validation.Valid;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.bolsadeideas.springboot.backend.apirest.models.services.ClienteIngestStatus;
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteEmailService;
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteIngestService;
+
+//Anotación para habilitar CORS y que la aplicación sea consumida por un cliente externo
+//con origins se indican las IPs permitidas
+@CrossOrigin(origins = {"http://localhost:4200"})
+//Anotación para indicar que es un controlador de una Api REST
+//El controlador solo se registra cuando está habilitada la cola asíncrona de clientes
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.clientes.async.enabled", havingValue = "true")
+@RestController
+//Anotación para indicar el endpoint de la Api
+@RequestMapping("/api")
+public class ClienteIngestRestController {
+
+	//Con esta anotación se usa inyección de dependencias
+	@Autowired
+	private IClienteIngestService clienteIngestService;
+
+	//Se usa para rechazar los emails duplicados antes de encolar el cliente
+	@Autowired
+	private IClienteEmailService clienteEmailService;
+
+	//Tiempo que se sugiere al consumidor esperar antes de reintentar cuando la cola está llena
+	@Value("${app.clientes.async.retry-after:1s}")
+	private Duration retryAfter;
+
+	//Se mapea el método a la Api como tipo POST
+	//El cliente se valida igual que en POST /api/clientes y se encola para crearse en segundo plano,
+	//se responde ACCEPTED con el Id de seguimiento y la Url para consultar su estado
+	@PostMapping("/clientes/async")
+	public ResponseEntity<?> create(@Valid @RequestBody Cliente cliente, BindingResult result) {
+		//Declarar mapa para devolver el mensaje de error
+		Map<String, Object> response = new HashMap<String, Object>();
+
+		//Validar si se obtuvieron errores de las validaciones
+		if (result.hasErrors()) {
+			List<String> errors = new ArrayList<String>();
+
+			//Recorrer listado de errores obtenidos
+			for (FieldError err : result.getFieldErrors()) {
+				errors.add("El campo '" + err.getField() + "' " + err.getDefaultMessage());
+			}
+
+			//Adicionar listado de errores
+			response.put("errors", errors);
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
+		}
+
+		//Validar si el email ya pertenece a otro cliente
+		if (clienteEmailService.exists(cliente.getEmail(), null)) {
+			//Adicionar mensaje de error
+			response.put("mensaje", clienteEmailService.conflictMessage(cliente.getEmail()));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.CONFLICT);
+		}
+
+		String trackingId;
+		try {
+			//Llamar al service para encolar el cliente
+			trackingId = clienteIngestService.submit(cliente);
+		} catch (RejectedExecutionException e) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "Hay demasiados clientes pendientes, intente más tarde");
+			response.put("error", e.getMessage());
+			//Se indica con Retry-After cuántos segundos esperar antes de reintentar
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.getSeconds())))
+					.body(response);
+		} catch (UncheckedIOException e) {
+			//Adicionar mensaje de error cuando no se pudo escribir el registro en disco
+			response.put("mensaje", "Error al registrar el cliente");
+			response.put("error", e.getMessage());
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+
+		//Adicionar mensaje de éxito junto al Id de seguimiento
+		response.put("mensaje", "El cliente ha sido recibido y se creará en segundo plano");
+		response.put("trackingId", trackingId);
+		response.put("estado", ClienteIngestStatus.PENDIENTE);
+		return ResponseEntity.accepted()
+				.location(URI.create("/api/clientes/async/" + trackingId))
+				.body(response);
+	}
+
+	//Se mapea el método a la Api como tipo GET
+	//Devuelve el estado del cliente encolado: PENDIENTE, COMPLETADO o ERROR (con los mensajes de error)
+	@GetMapping("/clientes/async/{trackingId}")
+	public ResponseEntity<?> status(@PathVariable String trackingId) {
+		//Llamar al service para obtener el estado
+		ClienteIngestStatus status = clienteIngestService.findStatus(trackingId);
+
+		//Validar si el Id de seguimiento no existe o ya expiró
+		if (status == null) {
+			Map<String, Object> response = new HashMap<String, Object>();
+			//Adicionar mensaje de error
+			response.put("mensaje", "El Id de seguimiento: ".concat(trackingId).concat(" no existe"));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.NOT_FOUND);
+		}
+
+		//No se guarda en caché para que el consumidor vea el cambio de estado
+		return ResponseEntity.ok()
+				.header(HttpHeaders.CACHE_CONTROL, "no-cache")
+				.body(status);
+	}
+}
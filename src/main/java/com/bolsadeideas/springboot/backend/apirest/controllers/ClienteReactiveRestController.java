@@ -0,0 +1,347 @@
+package com.bolsadeideas.springboot.backend.apirest.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.validation.Valid;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteReactiveService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//Variante reactiva (WebFlux + R2DBC) del controlador de clientes, con el mismo contrato /api/clientes
+//Los errores de validación y de base de datos se devuelven con los mismos mapas de respuesta que ClienteRestController
+//Con la anotación Profile el controlador solo se registra cuando está activo el perfil reactive
+@Profile("reactive")
+//Anotación para habilitar CORS y que la aplicación sea consumida por un cliente externo
+//con origins se indican las IPs permitidas
+@CrossOrigin(origins = {"http://localhost:4200"})
+//Anotación para indicar que es un controlador de una Api REST
+@RestController
+//Anotación para indicar el endpoint de la Api
+@RequestMapping("/api")
+public class ClienteReactiveRestController {
+
+	//Con esta anotación se usa inyección de dependencias
+	@Autowired
+	private IClienteReactiveService clienteService;
+
+	//Tamaño de página por defecto para la paginación por keyset
+	@Value("${app.clientes.scroll.default-size:20}")
+	private int scrollDefaultSize;
+
+	//Tamaño de página máximo permitido para la paginación por keyset
+	@Value("${app.clientes.scroll.max-size:500}")
+	private int scrollMaxSize;
+
+	//Se mapea el método a la Api como tipo GET
+	//Se devuelve un Flux para que WebFlux escriba cada cliente a medida que llega de la base de datos, ya sea como
+	//arreglo JSON o como NDJSON (Accept: application/x-ndjson); las filas se solicitan según la demanda del consumidor
+	@GetMapping(value = "/clientes", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+	public Flux<Cliente> index() {
+		return clienteService.findAll();
+	}
+
+	//Se mapea el método a la Api como tipo GET
+	//Se usa la anotación PathVariable para indicar que es una variable que viene en la Url
+	//Se inyecta ServerWebExchange para validar las cabeceras condicionales If-None-Match / If-Modified-Since
+	@GetMapping("/clientes/page/{page}")
+	public Mono<ResponseEntity<Page<Cliente>>> index(@PathVariable Integer page, ServerWebExchange exchange) {
+		//Se crea objeto Pageable indicando el número de la página a consultar y la cantidad de registros por página
+		Pageable pageable = PageRequest.of(page, 4);
+		//Llamar al service para obtener listado de todos los clientes usando paginación
+		return clienteService.findAll(pageable).map(clientes -> {
+			//Se calcula el ETag a partir de los Ids y versiones de la página, y la última fecha de modificación
+			String etag = pageEtag(clientes);
+			long lastModified = pageLastModified(clientes);
+			//Si la página no cambió respecto a la que tiene el consumidor se devuelve 304 sin serializar el contenido
+			if (exchange.checkNotModified(etag, Instant.ofEpochMilli(lastModified))) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+			}
+
+			//Con no-cache el navegador guarda la respuesta pero siempre la revalida con el ETag
+			return ResponseEntity.ok().eTag(etag).lastModified(lastModified).cacheControl(CacheControl.noCache().cachePrivate()).body(clientes);
+		});
+	}
+
+	//Método para calcular el ETag de una página a partir del número de página, el total y la versión de cada cliente
+	private String pageEtag(Page<Cliente> page) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(page.getNumber()).append('/').append(page.getTotalElements());
+		for (Cliente cliente : page.getContent()) {
+			sb.append(';').append(cliente.getId()).append(':').append(cliente.getVersion());
+		}
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	//Método para obtener la fecha de modificación más reciente de la página, -1 si algún cliente no la tiene
+	private long pageLastModified(Page<Cliente> page) {
+		long lastModified = -1;
+		for (Cliente cliente : page.getContent()) {
+			if (cliente.getUpdatedAt() == null) {
+				return -1;
+			}
+			lastModified = Math.max(lastModified, cliente.getUpdatedAt().getTime());
+		}
+		return lastModified;
+	}
+
+	//Se mapea el método a la Api como tipo GET
+	//Se usa la anotación RequestParam para indicar que son parámetros opcionales del query string
+	//Se usa paginación por keyset: el cursor indica el último Id entregado
+	@GetMapping("/clientes/scroll")
+	public Mono<ResponseEntity<Map<String, Object>>> scroll(@RequestParam(required = false) String after, @RequestParam(required = false) Integer size) {
+		//Declarar mapa para devolver los datos o el mensaje de error
+		Map<String, Object> response = new HashMap<String, Object>();
+		Long afterId;
+
+		try {
+			//Decodificar el cursor recibido, si no se envía se inicia desde el principio
+			afterId = (after == null || after.isEmpty()) ? 0L : decodeCursor(after);
+		} catch (IllegalArgumentException e) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "El cursor '".concat(after).concat("' no es válido"));
+			//Se añade el mensaje de error al response a devolver
+			return Mono.just(new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST));
+		}
+
+		//Limitar el tamaño de página solicitado al máximo configurado
+		int pageSize = (size == null || size < 1) ? scrollDefaultSize : Math.min(size, scrollMaxSize);
+
+		//Llamar al service pidiendo un registro adicional para saber si existe una página siguiente
+		return clienteService.findAllAfter(afterId, pageSize + 1)
+				.collectList()
+				.map(clientes -> {
+					String next = null;
+					//Si se obtuvo el registro adicional se descarta y se genera el cursor con el último Id entregado
+					if (clientes.size() > pageSize) {
+						clientes = clientes.subList(0, pageSize);
+						next = encodeCursor(clientes.get(pageSize - 1).getId());
+					}
+
+					//Adicionar listado de clientes y cursor de la siguiente página
+					response.put("content", clientes);
+					response.put("size", pageSize);
+					response.put("next", next);
+					//Se devuelve la información con estado OK
+					return new ResponseEntity<Map<String, Object>>(response, HttpStatus.OK);
+				})
+				.onErrorResume(DataAccessException.class, e -> Mono.just(error(response, "Error al realizar la consulta", e)));
+	}
+
+	//Método para convertir el Id en un cursor opaco para el consumidor de la Api
+	private String encodeCursor(Long id) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	//Método para obtener el Id a partir del cursor, lanza IllegalArgumentException si no es válido
+	private Long decodeCursor(String cursor) {
+		String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		//NumberFormatException es subclase de IllegalArgumentException
+		return Long.valueOf(value);
+	}
+
+	//Se mapea el método a la Api como tipo GET
+	//Se usa la anotación PathVariable para indicar que es una variable que viene en la Url
+	//Se inyecta ServerWebExchange para validar la cabecera condicional If-None-Match
+	@GetMapping("/clientes/{id}")
+	public Mono<ResponseEntity<?>> show(@PathVariable Long id, ServerWebExchange exchange) {
+		//Declarar mapa para devolver el mensaje de error
+		Map<String, Object> response = new HashMap<String, Object>();
+
+		//Llamar al service para obtener un cliente según Id
+		return clienteService.findById(id)
+				.<ResponseEntity<?>>map(cliente -> {
+					//El cliente no cambió respecto al que tiene el consumidor, se devuelve 304 sin contenido
+					if (exchange.checkNotModified(cliente.getVersion().toString())) {
+						return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cliente.getVersion().toString()).build();
+					}
+
+					//En caso de que el cliente exista se devuelve la información con estado OK, junto con su versión como ETag
+					ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(cliente.getVersion().toString())
+							.cacheControl(CacheControl.noCache().cachePrivate());
+					if (cliente.getUpdatedAt() != null) {
+						builder.lastModified(cliente.getUpdatedAt().getTime());
+					}
+					return builder.body(cliente);
+				})
+				//Validar si no se encontró el cliente especificado
+				.switchIfEmpty(Mono.fromSupplier(() -> notFound(response, id)))
+				.onErrorResume(DataAccessException.class, e -> Mono.just(error(response, "Error al realizar la consulta", e)));
+	}
+
+	//Se mapea el método a la Api como tipo POST
+	//Se usa la anotación Valid para indicar que antes de entrar al método se debe aplicar las validaciones
+	//definidas en la entidad, al recibir un Mono los errores llegan como WebExchangeBindException en el flujo
+	@PostMapping("/clientes")
+	public Mono<ResponseEntity<Map<String, Object>>> create(@Valid @RequestBody Mono<Cliente> monoCliente) {
+		//Declarar mapa para devolver el mensaje de error
+		Map<String, Object> response = new HashMap<String, Object>();
+
+		return monoCliente
+				//Llamar al service para guardar datos del nuevo cliente
+				.flatMap(cliente -> clienteService.save(cliente)
+						.map(clienteNew -> {
+							//Adicionar mensaje de éxito
+							response.put("mensaje", "El cliente ha sido creado con éxito");
+							//Adicionar datos del cliente creado como objeto
+							response.put("cliente", clienteNew);
+							return new ResponseEntity<Map<String, Object>>(response, HttpStatus.CREATED);
+						})
+						.onErrorResume(DataAccessException.class, e -> Mono.just(error(response, "Error al realizar la creación", e))))
+				//Validar si se obtuvieron errores de las validaciones
+				.onErrorResume(WebExchangeBindException.class, e -> Mono.just(badRequest(response, e)));
+	}
+
+	//Se mapea el método a la Api como tipo PUT
+	//Se usa la anotación RequestHeader para recibir la cabecera If-Match opcional con la versión esperada del cliente
+	@PutMapping("/clientes/{id}")
+	public Mono<ResponseEntity<Map<String, Object>>> update(@Valid @RequestBody Mono<Cliente> monoCliente, @PathVariable Long id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		//Declarar mapa para devolver el mensaje de error
+		Map<String, Object> response = new HashMap<String, Object>();
+
+		return monoCliente
+				//Obtener información del cliente actual
+				.flatMap(cliente -> clienteService.findById(id)
+						.flatMap(clienteActual -> {
+							//Validar si se envió la versión esperada y si coincide con la versión actual del cliente
+							Long version = clienteActual.getVersion();
+							if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+								version = parseEtag(ifMatch);
+								if (!clienteActual.getVersion().equals(version)) {
+									return Mono.just(preconditionFailed(response, id));
+								}
+							}
+
+							//Asignar el Id, la versión esperada y la fecha de creación a los datos recibidos
+							cliente.setId(clienteActual.getId());
+							cliente.setVersion(version);
+							cliente.setCreatedAt(clienteActual.getCreatedAt());
+
+							//Llamar al service para guardar datos del cliente actualizado
+							return clienteService.save(cliente)
+									.map(clienteUpdated -> {
+										//Adicionar mensaje de éxito
+										response.put("mensaje", "El cliente ha sido actualizado con éxito");
+										//Adicionar datos del cliente actualizado como objeto
+										response.put("cliente", clienteUpdated);
+										//Se devuelve la información con estado CREATED y la nueva versión como ETag
+										return ResponseEntity.status(HttpStatus.CREATED).eTag(clienteUpdated.getVersion().toString()).body(response);
+									})
+									.onErrorResume(OptimisticLockingFailureException.class, e -> Mono.just(preconditionFailed(response, id)))
+									.onErrorResume(DataAccessException.class, e -> Mono.just(error(response, "Error al realizar la actualización", e)));
+						})
+						//Validar si no se encontró el cliente especificado
+						.switchIfEmpty(Mono.fromSupplier(() -> notFound(response, id))))
+				//Validar si se obtuvieron errores de las validaciones
+				.onErrorResume(WebExchangeBindException.class, e -> Mono.just(badRequest(response, e)));
+	}
+
+	//Método para obtener la versión a partir del valor de la cabecera If-Match ("3", "\"3\"" o W/"3")
+	//Si el valor no es una versión válida se devuelve -1 para que no coincida con ninguna versión
+	private Long parseEtag(String etag) {
+		String value = etag.trim();
+		if (value.startsWith("W/")) {
+			value = value.substring(2);
+		}
+		value = value.replace("\"", "");
+		try {
+			return Long.valueOf(value);
+		} catch (NumberFormatException e) {
+			return -1L;
+		}
+	}
+
+	//se mapea el método a la Api como tipo DELETE
+	//Se usa la anotación PathVariable para indicar que es una variable que viene en la Url
+	@DeleteMapping("/clientes/{id}")
+	public Mono<ResponseEntity<Map<String, Object>>> delete(@PathVariable Long id) {
+		//Declarar mapa para devolver el mensaje de error
+		Map<String, Object> response = new HashMap<String, Object>();
+
+		//Llamar al service para eliminar el cliente según Id
+		return clienteService.delete(id)
+				.then(Mono.fromSupplier(() -> {
+					//Adicionar mensaje de éxito
+					response.put("mensaje", "El cliente ha sido eliminado con éxito");
+					//En caso de que no se presenten errores se devuelve la información con estado OK
+					return new ResponseEntity<Map<String, Object>>(response, HttpStatus.OK);
+				}))
+				.onErrorResume(DataAccessException.class, e -> Mono.just(error(response, "Error al realizar la eliminación", e)));
+	}
+
+	//Método para armar la respuesta con los errores de validación, con el mismo formato de ClienteRestController
+	private ResponseEntity<Map<String, Object>> badRequest(Map<String, Object> response, WebExchangeBindException e) {
+		//Recorrer listado de mensajes obtenido y guardar en lista tipo texto
+		List<String> errors = e.getFieldErrors()
+								.stream()
+								.map(err -> "El campo '" + err.getField() + "' " + err.getDefaultMessage())
+								.collect(Collectors.toList());
+		//Adicionar listado de errores
+		response.put("errors", errors);
+		//Se añade el mensaje de error al response a devolver
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
+	}
+
+	//Método para armar la respuesta cuando no existe el cliente especificado
+	private ResponseEntity<Map<String, Object>> notFound(Map<String, Object> response, Long id) {
+		//Adicionar mensaje de error
+		response.put("mensaje", "El cliente ID: ".concat(id.toString()).concat(" no existe"));
+		//Se añade el mensaje de error al response a devolver
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.NOT_FOUND);
+	}
+
+	//Método para armar la respuesta cuando la versión del cliente no coincide con la esperada
+	private ResponseEntity<Map<String, Object>> preconditionFailed(Map<String, Object> response, Long id) {
+		//Adicionar mensaje de error
+		response.put("mensaje", "El cliente ID: ".concat(id.toString()).concat(" fue modificado por otro usuario"));
+		//Se añade el mensaje de error al response a devolver
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.PRECONDITION_FAILED);
+	}
+
+	//Método para armar la respuesta cuando falla la operación en la base de datos
+	private ResponseEntity<Map<String, Object>> error(Map<String, Object> response, String mensaje, DataAccessException e) {
+		//Adicionar mensaje de error
+		response.put("mensaje", mensaje);
+		//Adicionar mensaje de la excepción
+		response.put("error", e.getMessage().concat(" : ").concat(e.getMostSpecificCause().getMessage()));
+		//Se añade el mensaje de error al response a devolver
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+	}
+}
@@ -1,39 +1,71 @@
 package com.bolsadeideas.springboot.backend.apirest.controllers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.bolsadeideas.springboot.backend.apirest.config.RateLimitCost;
+import com.bolsadeideas.springboot.backend.apirest.models.dao.IClienteDaoCustom;
+import com.bolsadeideas.springboot.backend.apirest.models.dto.ClienteResponse;
+import com.bolsadeideas.springboot.backend.apirest.models.dto.PageResponse;
 import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.bolsadeideas.springboot.backend.apirest.models.services.ClienteSearchCursor;
+import com.bolsadeideas.springboot.backend.apirest.models.services.ClienteSearchResult;
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteEmailService;
 import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 //Anotación para habilitar CORS y que la aplicación sea consumida por un cliente externo
 //con origins se indican las IPs permitidas
 @CrossOrigin(origins = {"http://localhost:4200"})
 //Anotación para indicar que es un controlador de una Api REST
+//Con la anotación Profile el controlador solo se registra en la variante servlet (bloqueante) de la Api
+@Profile("!reactive")
 @RestController
 //Anotación para indicar el endpoint de la Api
 @RequestMapping("/api")
@@ -43,33 +75,311 @@ public class ClienteRestController {
 	@Autowired
 	private IClienteService clienteService;
 	
+	//Se usa para detectar los emails duplicados antes de intentar guardar el cliente
+	@Autowired
+	private IClienteEmailService clienteEmailService;
+	
+	//Tamaño de página por defecto para la paginación por keyset
+	@Value("${app.clientes.scroll.default-size:20}")
+	private int scrollDefaultSize;
+	
+	//Tamaño de página máximo permitido para la paginación por keyset
+	@Value("${app.clientes.scroll.max-size:500}")
+	private int scrollMaxSize;
+	
+	//Se inyecta el ObjectMapper configurado por Spring para escribir los clientes a medida que se leen
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	//Se usa el validador de Bean Validation para validar solo los campos recibidos en las actualizaciones parciales
+	@Autowired
+	private Validator validator;
+	
 	//Se mapea el método a la Api como tipo GET
+	//Se devuelve un StreamingResponseBody para escribir el arreglo JSON por partes sin cargar toda la tabla en memoria
+	//Con el parámetro opcional fields (ej: ?fields=nombre,email) solo se consultan y devuelven esas columnas
+	//Recorre la tabla completa, por lo que consume más tokens del límite de peticiones
+	@RateLimitCost(50)
 	@GetMapping("/clientes")
-	public List<Cliente> index(){
-		//Llamar al service para obtener listado de todos los clientes
-		return clienteService.findAll();
+	public ResponseEntity<StreamingResponseBody> index(@RequestParam(required = false) String fields){
+		Set<String> campos;
+		try {
+			campos = parseFields(fields);
+		} catch (IllegalArgumentException e) {
+			//El mapa de error se escribe como cuerpo, ya que el método devuelve un StreamingResponseBody
+			Map<String, Object> response = badRequest(e).getBody();
+			return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(out -> objectMapper.writeValue(out, response));
+		}
+		
+		StreamingResponseBody body = out -> {
+			JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+			generator.writeStartArray();
+			//Llamar al service para recorrer todos los clientes escribiendo cada uno como elemento del arreglo
+			if (campos == null) {
+				clienteService.exportAll(cliente -> writeCliente(generator, cliente, false));
+			} else {
+				clienteService.exportAll(campos, cliente -> writeCliente(generator, cliente, false));
+			}
+			generator.writeEndArray();
+			generator.flush();
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+	}
+	
+	//Se mapea el método a la Api como tipo GET cuando el cliente solicita NDJSON (Accept: application/x-ndjson)
+	//Se escribe un cliente por línea para que el consumidor pueda procesarlos a medida que llegan
+	//Recorre la tabla completa, por lo que consume más tokens del límite de peticiones
+	@RateLimitCost(50)
+	@GetMapping(value = "/clientes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> indexNdjson(@RequestParam(required = false) String fields){
+		Set<String> campos;
+		try {
+			campos = parseFields(fields);
+		} catch (IllegalArgumentException e) {
+			//El mapa de error se escribe como cuerpo, ya que el método devuelve un StreamingResponseBody
+			Map<String, Object> response = badRequest(e).getBody();
+			return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(out -> objectMapper.writeValue(out, response));
+		}
+		
+		StreamingResponseBody body = out -> {
+			JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+			//Llamar al service para recorrer todos los clientes escribiendo cada uno en una línea
+			if (campos == null) {
+				clienteService.exportAll(cliente -> writeCliente(generator, cliente, true));
+			} else {
+				clienteService.exportAll(campos, cliente -> writeCliente(generator, cliente, true));
+			}
+			generator.flush();
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+	
+	//Método para escribir un cliente (entidad o proyección) en el generador JSON, opcionalmente seguido de un salto de línea
+	private void writeCliente(JsonGenerator generator, Object cliente, boolean newLine) {
+		try {
+			generator.writeObject(cliente);
+			if (newLine) {
+				generator.writeRaw('\n');
+			}
+		} catch (IOException e) {
+			//Se propaga el error de escritura para cortar el recorrido del cursor
+			throw new UncheckedIOException(e);
+		}
 	}
 	
 	//Se mapea el método a la Api como tipo GET
 	//Se usa la anotación PathVariable para indicar que es una variable que viene en la Url
+	//Se inyecta WebRequest para validar las cabeceras condicionales If-None-Match / If-Modified-Since
+	//Con el parámetro opcional fields solo se consultan las columnas indicadas, en ese caso la respuesta no lleva ETag
+	//Ejecuta la consulta de la página y la de COUNT
+	@RateLimitCost(2)
 	@GetMapping("/clientes/page/{page}")
-	public Page<Cliente> index(@PathVariable Integer page){
+	public ResponseEntity<?> index(@PathVariable Integer page, @RequestParam(required = false) String fields, WebRequest request){
 		//Se crea objeto Pageable indicando el número de la página a consultar y la cantidad de registros por página
 		Pageable pageable = PageRequest.of(page, 4);
+		
+		if (fields != null) {
+			try {
+				//Llamar al service para obtener solo los campos solicitados de la página
+				return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate())
+						.body(new PageResponse<Map<String, Object>>(clienteService.findAll(parseFields(fields), pageable)));
+			} catch (IllegalArgumentException e) {
+				return badRequest(e);
+			}
+		}
+		
 		//Llamar al service para obtener listado de todos los clientes usando paginación
-		return clienteService.findAll(pageable);
+		Page<Cliente> clientes = clienteService.findAll(pageable);
+		
+		//Se calcula el ETag a partir de los Ids y versiones de la página, y la última fecha de modificación
+		String etag = pageEtag(clientes);
+		long lastModified = pageLastModified(clientes);
+		//Si la página no cambió respecto a la que tiene el consumidor se devuelve 304 sin serializar el contenido
+		if (request.checkNotModified(etag, lastModified)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
+		
+		//Con no-cache el navegador guarda la respuesta pero siempre la revalida con el ETag
+		//Se devuelve solo el contenido y los datos de paginación en lugar del Page completo
+		return ResponseEntity.ok().eTag(etag).lastModified(lastModified).cacheControl(CacheControl.noCache().cachePrivate())
+				.body(new PageResponse<Cliente>(clientes));
+	}
+	
+	//Método para calcular el ETag de una página a partir del número de página, el total y la versión de cada cliente
+	private String pageEtag(Page<Cliente> page) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(page.getNumber()).append('/').append(page.getTotalElements());
+		for (Cliente cliente : page.getContent()) {
+			sb.append(';').append(cliente.getId()).append(':').append(cliente.getVersion());
+		}
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+	
+	//Método para obtener la fecha de modificación más reciente de la página, -1 si algún cliente no la tiene
+	private long pageLastModified(Page<Cliente> page) {
+		long lastModified = -1;
+		for (Cliente cliente : page.getContent()) {
+			if (cliente.getUpdatedAt() == null) {
+				return -1;
+			}
+			lastModified = Math.max(lastModified, cliente.getUpdatedAt().getTime());
+		}
+		return lastModified;
+	}
+	
+	//Se mapea el método a la Api como tipo GET
+	//Se usa la anotación RequestParam para indicar que son parámetros opcionales del query string
+	//Se usa paginación por keyset: el cursor indica el último Id entregado, por lo que cualquier página
+	//cuesta lo mismo que la primera y no se calcula el total de registros
+	//Consume tokens según el costo de la consulta para el límite de peticiones
+	@RateLimitCost(2)
+	@GetMapping("/clientes/scroll")
+	public ResponseEntity<?> scroll(@RequestParam(required = false) String after, @RequestParam(required = false) Integer size,
+			@RequestParam(required = false) String fields) {
+		//Declarar mapa para devolver los datos o el mensaje de error
+		Map<String, Object> response = new HashMap<String, Object>();
+		Long afterId;
+		Set<String> campos;
+		
+		try {
+			campos = parseFields(fields);
+		} catch (IllegalArgumentException e) {
+			return badRequest(e);
+		}
+		
+		try {
+			//Decodificar el cursor recibido, si no se envía se inicia desde el principio
+			afterId = (after == null || after.isEmpty()) ? 0L : decodeCursor(after);
+		} catch (IllegalArgumentException e) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "El cursor '".concat(after).concat("' no es válido"));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
+		}
+		
+		//Limitar el tamaño de página solicitado al máximo configurado
+		int pageSize = (size == null || size < 1) ? scrollDefaultSize : Math.min(size, scrollMaxSize);
+		List<?> clientes = null;
+		
+		try {
+			//Llamar al service pidiendo un registro adicional para saber si existe una página siguiente
+			clientes = campos == null ? clienteService.findAllAfter(afterId, pageSize + 1)
+					: clienteService.findAllAfter(campos, afterId, pageSize + 1);
+		} catch (DataAccessException e) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "Error al realizar la consulta");
+			//Adicionar mensaje de la excepción
+			response.put("error", e.getMessage().concat(" : ").concat(e.getMostSpecificCause().getMessage()));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		
+		String next = null;
+		//Si se obtuvo el registro adicional se descarta y se genera el cursor con el último Id entregado
+		if (clientes.size() > pageSize) {
+			clientes = clientes.subList(0, pageSize);
+			Object last = clientes.get(pageSize - 1);
+			next = encodeCursor(last instanceof Cliente ? ((Cliente) last).getId() : (Long) ((Map<?, ?>) last).get("id"));
+		}
+		
+		//Adicionar listado de clientes y cursor de la siguiente página
+		response.put("content", clientes);
+		response.put("size", pageSize);
+		response.put("next", next);
+		//Se devuelve la información con estado OK
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.OK);
+	}
+	
+	//Se mapea el método a la Api como tipo GET
+	//Se buscan los clientes cuyo nombre, apellido o email comienzan con el texto indicado en q
+	//Los resultados se paginan por keyset usando el cursor devuelto en next
+	//Consume tokens según el costo de la consulta para el límite de peticiones
+	@RateLimitCost(2)
+	@GetMapping("/clientes/search")
+	public ResponseEntity<?> search(@RequestParam String q, @RequestParam(required = false) String after, @RequestParam(required = false) Integer size) {
+		//Declarar mapa para devolver los datos o el mensaje de error
+		Map<String, Object> response = new HashMap<String, Object>();
+		
+		//Validar que se haya indicado el texto a buscar
+		if (q.trim().isEmpty()) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "El parámetro 'q' no puede estar vacío");
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
+		}
+		
+		ClienteSearchCursor cursor;
+		try {
+			//Decodificar el cursor recibido, si no se envía se inicia desde el principio
+			cursor = (after == null || after.isEmpty()) ? ClienteSearchCursor.START : ClienteSearchCursor.decode(after);
+		} catch (IllegalArgumentException e) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "El cursor '".concat(after).concat("' no es válido"));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
+		}
+		
+		//Limitar el tamaño de página solicitado al máximo configurado
+		int pageSize = (size == null || size < 1) ? scrollDefaultSize : Math.min(size, scrollMaxSize);
+		ClienteSearchResult result = null;
+		
+		try {
+			//Llamar al service para buscar los clientes por prefijo
+			result = clienteService.search(q.trim(), cursor, pageSize);
+		} catch (DataAccessException e) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "Error al realizar la consulta");
+			//Adicionar mensaje de la excepción
+			response.put("error", e.getMessage().concat(" : ").concat(e.getMostSpecificCause().getMessage()));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		
+		//Adicionar listado de clientes y cursor de la siguiente página
+		response.put("content", result.getContent());
+		response.put("size", pageSize);
+		response.put("next", result.getNext() != null ? result.getNext().encode() : null);
+		//Se devuelve la información con estado OK
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.OK);
+	}
+	
+	//Método para convertir el Id en un cursor opaco para el consumidor de la Api
+	private String encodeCursor(Long id) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+	}
+	
+	//Método para obtener el Id a partir del cursor, lanza IllegalArgumentException si no es válido
+	private Long decodeCursor(String cursor) {
+		String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		//NumberFormatException es subclase de IllegalArgumentException
+		return Long.valueOf(value);
 	}
 	
 	//Se mapea el método a la Api como tipo GET
 	//Se usa la anotación PathVariable para indicar que es una variable que viene en la Url
 	//Se usa el tipo de dato de respuesta ResponseEntity para devolver errores o los datos
+	//Se inyecta WebRequest para validar la cabecera condicional If-None-Match
+	//Con el parámetro opcional fields solo se consultan y devuelven las columnas indicadas
 	@GetMapping("/clientes/{id}")
-	public ResponseEntity<?> show(@PathVariable Long id) {
+	public ResponseEntity<?> show(@PathVariable Long id, @RequestParam(required = false) String fields, WebRequest request) {
 		Cliente cliente = null;
 		//Declarar mapa para devolver el mensaje de error
 		Map<String, Object> response = new HashMap<String, Object>(); 
 		
+		if (fields != null) {
+			return showFields(id, fields);
+		}
+		
 		try {
+			//Si el consumidor envía If-None-Match se valida primero solo la versión del cliente, sin cargar la entidad
+			if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+				Long version = clienteService.findVersionById(id);
+				if (version != null && request.checkNotModified(version.toString())) {
+					//El cliente no cambió, se devuelve 304 sin contenido
+					return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version.toString()).build();
+				}
+			}
+			
 			//Llamar al service para obtener un cliente según Id
 			cliente = clienteService.findById(id);
 		} catch (DataAccessException e) {
@@ -89,8 +399,14 @@ public class ClienteRestController {
 			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.NOT_FOUND);
 		}
 		
-		//En caso de que el cliente exista se devuelve la información con estado OK
-		return new ResponseEntity<Cliente>(cliente, HttpStatus.OK);
+		//En caso de que el cliente exista se devuelve la información con estado OK, junto con su versión como ETag
+		//Con no-cache el navegador guarda la respuesta pero siempre la revalida con el ETag
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(cliente.getVersion().toString())
+				.cacheControl(CacheControl.noCache().cachePrivate());
+		if (cliente.getUpdatedAt() != null) {
+			builder.lastModified(cliente.getUpdatedAt().getTime());
+		}
+		return builder.body(cliente);
 	}
 	
 	//Se mapea el método a la Api como tipo POST
@@ -99,6 +415,8 @@ public class ClienteRestController {
 	//Se usa la anotación Valid para indicar que antes de entrar al método se debe aplicar las validaciones
 	//definidas en la entidad
 	//Se inyecta el objeto BindingResult que contiene todos los mensajes de error
+	//Las escrituras consumen más tokens que las consultas por Id
+	@RateLimitCost(2)
 	@PostMapping("/clientes")
 	public ResponseEntity<?> create(@Valid @RequestBody Cliente cliente, BindingResult result) {
 		Cliente clienteNew = null;
@@ -120,9 +438,21 @@ public class ClienteRestController {
 			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
 		}
 		
+		//Validar si el email ya pertenece a otro cliente, así se evita un INSERT que fallaría por la restricción única
+		if (clienteEmailService.exists(cliente.getEmail(), null)) {
+			return conflict(cliente.getEmail());
+		}
+		
 		try {
 			//Llamar al service para guardar datos del nuevo cliente
 			clienteNew = clienteService.save(cliente);
+		} catch (DataIntegrityViolationException e) {
+			//Adicionar mensaje de error cuando la base de datos rechaza el cliente, por ejemplo por un email duplicado
+			response.put("mensaje", "Error al realizar la creación");
+			//Adicionar mensaje de la excepción
+			response.put("error", e.getMessage().concat(" : ").concat(e.getMostSpecificCause().getMessage()));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.CONFLICT);
 		} catch (DataAccessException e) {
 			//Adicionar mensaje de error
 			response.put("mensaje", "Error al realizar la creación");
@@ -132,12 +462,8 @@ public class ClienteRestController {
 			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.INTERNAL_SERVER_ERROR);
 		}
 		
-		//Adicionar mensaje de éxito
-		response.put("mensaje", "El cliente ha sido creado con éxito");
-		//Adicionar datos del cliente creado como objeto
-		response.put("cliente", clienteNew);
-		//En caso de que no se presenten errores se devuelve la información con estado OK
-		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.CREATED);
+		//En caso de que no se presenten errores se devuelve el mensaje de éxito y el cliente creado con estado CREATED
+		return new ResponseEntity<ClienteResponse>(new ClienteResponse("El cliente ha sido creado con éxito", clienteNew), HttpStatus.CREATED);
 	}
 	
 	//Se mapea el método a la Api como tipo PUT
@@ -147,8 +473,12 @@ public class ClienteRestController {
 	//Se usa la anotación Valid para indicar que antes de entrar al método se debe aplicar las validaciones
 	//definidas en la entidad
 	//Se inyecta el objeto BindingResult que contiene todos los mensajes de error
+	//Se usa la anotación RequestHeader para recibir la cabecera If-Match opcional con la versión esperada del cliente
+	//Las escrituras consumen más tokens que las consultas por Id
+	@RateLimitCost(2)
 	@PutMapping("/clientes/{id}")
-	public ResponseEntity<?> update(@Valid @RequestBody Cliente cliente, BindingResult result, @PathVariable Long id) {
+	public ResponseEntity<?> update(@Valid @RequestBody Cliente cliente, BindingResult result, @PathVariable Long id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 		//Obtener información del cliente actual
 		Cliente clienteActual = clienteService.findById(id);
 		Cliente clienteUpdated = null;
@@ -169,22 +499,202 @@ public class ClienteRestController {
 		}
 		
 		//Validar si no se encontró el cliente especificado
-		if (cliente == null) {
+		if (clienteActual == null) {
 			//Adicionar mensaje de error
 			response.put("mensaje", "El cliente ID: ".concat(id.toString()).concat(" no existe"));
 			//Se añade el mensaje de error al response a devolver
 			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.NOT_FOUND);
 		}
 		
+		//Validar si se envió la versión esperada y si coincide con la versión actual del cliente
+		Long version = clienteActual.getVersion();
+		if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+			version = parseEtag(ifMatch);
+			if (!clienteActual.getVersion().equals(version)) {
+				//Adicionar mensaje de error
+				response.put("mensaje", "El cliente ID: ".concat(id.toString()).concat(" fue modificado por otro usuario"));
+				//Se añade el mensaje de error al response a devolver
+				return new ResponseEntity<Map<String, Object>>(response, HttpStatus.PRECONDITION_FAILED);
+			}
+		}
+		
+		//Validar si el email se modificó y ya pertenece a otro cliente
+		if (!cliente.getEmail().equalsIgnoreCase(clienteActual.getEmail()) && clienteEmailService.exists(cliente.getEmail(), id)) {
+			return conflict(cliente.getEmail());
+		}
+		
 		try {
-			//Asignar datos a actualizar para el cliente
-			clienteActual.setApellido(cliente.getApellido());
-			clienteActual.setEmail(cliente.getEmail());
-			clienteActual.setNombre(cliente.getNombre());
-			clienteActual.setCreatedAt(cliente.getCreatedAt());
+			//Asignar el Id a los datos recibidos en lugar de modificar clienteActual, ya que dicha instancia
+			//puede ser la que está almacenada en caché y no debe cambiar si la actualización falla
+			cliente.setId(clienteActual.getId());
+			//Asignar la versión esperada para que Hibernate valide en el UPDATE que nadie más modificó el cliente
+			cliente.setVersion(version);
+			cliente.setUpdatedAt(clienteActual.getUpdatedAt());
+			//Se conserva la fecha de creación, el consumidor no puede modificarla
+			cliente.setCreatedAt(clienteActual.getCreatedAt());
 			
 			//Llamar al service para guardar datos del cliente actualizado
-			clienteUpdated = clienteService.save(clienteActual);
+			clienteUpdated = clienteService.save(cliente);
+		} catch (OptimisticLockingFailureException e) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "El cliente ID: ".concat(id.toString()).concat(" fue modificado por otro usuario"));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.PRECONDITION_FAILED);
+		} catch (DataIntegrityViolationException e) {
+			//Adicionar mensaje de error cuando la base de datos rechaza el cliente, por ejemplo por un email duplicado
+			response.put("mensaje", "Error al realizar la actualización");
+			//Adicionar mensaje de la excepción
+			response.put("error", e.getMessage().concat(" : ").concat(e.getMostSpecificCause().getMessage()));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.CONFLICT);
+		} catch (DataAccessException e) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "Error al realizar la actualización");
+			//Adicionar mensaje de la excepción
+			response.put("error", e.getMessage().concat(" : ").concat(e.getMostSpecificCause().getMessage()));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		
+		//En caso de que no se presenten errores se devuelve el mensaje de éxito y el cliente actualizado,
+		//con la nueva versión como ETag
+		return ResponseEntity.status(HttpStatus.CREATED).eTag(clienteUpdated.getVersion().toString())
+				.body(new ClienteResponse("El cliente ha sido actualizado con éxito", clienteUpdated));
+	}
+	
+	//Método para obtener solo los campos indicados de un cliente
+	private ResponseEntity<?> showFields(Long id, String fields) {
+		Map<String, Object> cliente = null;
+		//Declarar mapa para devolver el mensaje de error
+		Map<String, Object> response = new HashMap<String, Object>();
+		
+		try {
+			//Llamar al service para obtener los campos del cliente según Id
+			cliente = clienteService.findById(parseFields(fields), id);
+		} catch (IllegalArgumentException e) {
+			return badRequest(e);
+		} catch (DataAccessException e) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "Error al realizar la consulta");
+			//Adicionar mensaje de la excepción
+			response.put("error", e.getMessage().concat(" : ").concat(e.getMostSpecificCause().getMessage()));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		
+		//Validar si no se encontró el cliente especificado
+		if (cliente == null) {
+			//Adicionar mensaje de error
+			response.put("mensaje", "El cliente ID: ".concat(id.toString()).concat(" no existe"));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.NOT_FOUND);
+		}
+		return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(cliente);
+	}
+	
+	//Método para obtener los campos solicitados en ?fields=, null si no se indicó el parámetro
+	//El Id siempre se incluye para poder identificar cada cliente y armar los cursores
+	//Lanza IllegalArgumentException si algún campo no es válido
+	private Set<String> parseFields(String fields) {
+		if (fields == null) {
+			return null;
+		}
+		Set<String> campos = new LinkedHashSet<String>();
+		campos.add("id");
+		for (String field : fields.split(",")) {
+			String campo = field.trim();
+			if (campo.isEmpty()) {
+				continue;
+			}
+			if (!IClienteDaoCustom.PROJECTION_FIELDS.contains(campo)) {
+				throw new IllegalArgumentException("El campo '" + campo + "' no es válido");
+			}
+			campos.add(campo);
+		}
+		return campos;
+	}
+	
+	//Método para armar la respuesta cuando un parámetro de la petición no es válido
+	private ResponseEntity<Map<String, Object>> badRequest(IllegalArgumentException e) {
+		Map<String, Object> response = new HashMap<String, Object>();
+		//Adicionar mensaje de error
+		response.put("mensaje", e.getMessage());
+		//Se añade el mensaje de error al response a devolver
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
+	}
+	
+	//Se mapea el método a la Api como tipo PATCH
+	//El body solo trae los campos a modificar (nombre, apellido y/o email), que se actualizan con un único UPDATE
+	//sin cargar la entidad; la fecha de creación y el Id no se pueden modificar
+	//Se usa la anotación RequestHeader para recibir la cabecera If-Match opcional con la versión esperada del cliente
+	//Las escrituras consumen más tokens que las consultas por Id
+	@RateLimitCost(2)
+	@PatchMapping("/clientes/{id}")
+	public ResponseEntity<?> patch(@RequestBody Map<String, Object> fields, @PathVariable Long id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		//Declarar mapa para devolver el mensaje de error
+		Map<String, Object> response = new HashMap<String, Object>();
+		List<String> errors = new ArrayList<String>();
+		
+		//Validar cada campo recibido con las reglas definidas en la entidad
+		for (Map.Entry<String, Object> field : fields.entrySet()) {
+			if (!IClienteDaoCustom.UPDATABLE_FIELDS.contains(field.getKey())) {
+				errors.add("El campo '" + field.getKey() + "' no se puede modificar");
+			} else if (field.getValue() != null && !(field.getValue() instanceof String)) {
+				errors.add("El campo '" + field.getKey() + "' debe ser un texto");
+			} else {
+				for (ConstraintViolation<Cliente> err : validator.validateValue(Cliente.class, field.getKey(), field.getValue())) {
+					errors.add("El campo '" + field.getKey() + "' " + err.getMessage());
+				}
+			}
+		}
+		if (fields.isEmpty()) {
+			errors.add("Se debe indicar al menos un campo a modificar");
+		}
+		
+		//Validar si se obtuvieron errores de las validaciones
+		if (!errors.isEmpty()) {
+			//Adicionar listado de errores
+			response.put("errors", errors);
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
+		}
+		
+		//Validar si se modifica el email y ya pertenece a otro cliente
+		if (fields.get("email") instanceof String && clienteEmailService.exists((String) fields.get("email"), id)) {
+			return conflict((String) fields.get("email"));
+		}
+		
+		//Si se envió If-Match el UPDATE solo se aplica cuando la versión coincide
+		Long version = (ifMatch != null && !"*".equals(ifMatch.trim())) ? parseEtag(ifMatch) : null;
+		Long newVersion = null;
+		
+		try {
+			//Llamar al service para actualizar solo los campos recibidos
+			int updated = clienteService.patch(id, fields, version);
+			//Se consulta solo la versión, sirve para distinguir un cliente inexistente de uno modificado por otro usuario
+			newVersion = clienteService.findVersionById(id);
+			
+			if (updated == 0) {
+				//Validar si no se encontró el cliente especificado
+				if (newVersion == null) {
+					//Adicionar mensaje de error
+					response.put("mensaje", "El cliente ID: ".concat(id.toString()).concat(" no existe"));
+					//Se añade el mensaje de error al response a devolver
+					return new ResponseEntity<Map<String, Object>>(response, HttpStatus.NOT_FOUND);
+				}
+				//Adicionar mensaje de error
+				response.put("mensaje", "El cliente ID: ".concat(id.toString()).concat(" fue modificado por otro usuario"));
+				//Se añade el mensaje de error al response a devolver
+				return new ResponseEntity<Map<String, Object>>(response, HttpStatus.PRECONDITION_FAILED);
+			}
+		} catch (DataIntegrityViolationException e) {
+			//Adicionar mensaje de error cuando la base de datos rechaza el cambio, por ejemplo por un email duplicado
+			response.put("mensaje", "Error al realizar la actualización");
+			//Adicionar mensaje de la excepción
+			response.put("error", e.getMessage().concat(" : ").concat(e.getMostSpecificCause().getMessage()));
+			//Se añade el mensaje de error al response a devolver
+			return new ResponseEntity<Map<String, Object>>(response, HttpStatus.CONFLICT);
 		} catch (DataAccessException e) {
 			//Adicionar mensaje de error
 			response.put("mensaje", "Error al realizar la actualización");
@@ -196,15 +706,39 @@ public class ClienteRestController {
 		
 		//Adicionar mensaje de éxito
 		response.put("mensaje", "El cliente ha sido actualizado con éxito");
-		//Adicionar datos del cliente creado como objeto
-		response.put("cliente", clienteUpdated);
-		//En caso de que no se presenten errores se devuelve la información con estado OK
-		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.CREATED);
+		//Se devuelve la nueva versión como ETag para que el consumidor pueda encadenar otra actualización
+		return ResponseEntity.ok().eTag(newVersion.toString()).body(response);
+	}
+	
+	//Método para armar la respuesta cuando el email ya pertenece a otro cliente
+	private ResponseEntity<Map<String, Object>> conflict(String email) {
+		Map<String, Object> response = new HashMap<String, Object>();
+		//Adicionar mensaje de error
+		response.put("mensaje", clienteEmailService.conflictMessage(email));
+		//Se añade el mensaje de error al response a devolver
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.CONFLICT);
+	}
+	
+	//Método para obtener la versión a partir del valor de la cabecera If-Match ("3", "\"3\"" o W/"3")
+	//Si el valor no es una versión válida se devuelve -1 para que no coincida con ninguna versión
+	private Long parseEtag(String etag) {
+		String value = etag.trim();
+		if (value.startsWith("W/")) {
+			value = value.substring(2);
+		}
+		value = value.replace("\"", "");
+		try {
+			return Long.valueOf(value);
+		} catch (NumberFormatException e) {
+			return -1L;
+		}
 	}
 	
 	//se mapea el método a la Api como tipo DELETE
 	//Se usa la anotación PathVariable para indicar que es una variable que viene en la Url
 	//Se usa el tipo de dato de respuesta ResponseEntity para devolver errores o los datos
+	//Las escrituras consumen más tokens que las consultas por Id
+	@RateLimitCost(2)
 	@DeleteMapping("/clientes/{id}")
 	public ResponseEntity<?> delete(@PathVariable Long id) {
 		//Declarar mapa para devolver el mensaje de error
@@ -212,7 +746,13 @@ public class ClienteRestController {
 		
 		try {
 			//Llamar al service para eliminar el cliente según Id
-			clienteService.delete(id);
+			//Validar si no se actualizó ninguna fila, en ese caso el cliente no existe o ya fue eliminado
+			if (clienteService.delete(id) == 0) {
+				//Adicionar mensaje de error
+				response.put("mensaje", "El cliente ID: ".concat(id.toString()).concat(" no existe"));
+				//Se añade el mensaje de error al response a devolver
+				return new ResponseEntity<Map<String, Object>>(response, HttpStatus.NOT_FOUND);
+			}
 		} catch (DataAccessException e) {
 			//Adicionar mensaje de error
 			response.put("mensaje", "Error al realizar la eliminación");
@@ -0,0 +1,88 @@
+package com.bolsadeideas.springboot.backend.apirest.controllers;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteStatsService;
+
+//Anotación para habilitar CORS y que la aplicación sea consumida por un cliente externo
+//con origins se indican las IPs permitidas
+@CrossOrigin(origins = {"http://localhost:4200"})
+//Anotación para indicar que es un controlador de una Api REST
+//Las estadísticas se obtienen de los contadores en memoria de IClienteStatsService, sin consultar la base de datos
+@Profile("!reactive")
+@RestController
+//Anotación para indicar el endpoint de la Api
+@RequestMapping("/api")
+public class ClienteStatsRestController {
+
+	//Cantidad máxima de dominios que se pueden solicitar
+	private static final int MAX_DOMAINS = 1000;
+
+	//Con esta anotación se usa inyección de dependencias
+	@Autowired
+	private IClienteStatsService clienteStatsService;
+
+	//Se mapea el método a la Api como tipo GET
+	//Devuelve la cantidad total de clientes
+	@GetMapping("/clientes/stats")
+	public ResponseEntity<?> count() {
+		Map<String, Object> response = new HashMap<String, Object>();
+		response.put("total", clienteStatsService.count());
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.OK);
+	}
+
+	//Se mapea el método a la Api como tipo GET
+	//Devuelve la cantidad de clientes creados por día (yyyy-MM-dd), opcionalmente entre las fechas from y to
+	@GetMapping("/clientes/stats/daily")
+	public ResponseEntity<?> countByDay(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		//Validar que el rango de fechas sea correcto
+		if (from != null && to != null && from.isAfter(to)) {
+			return invalidRange();
+		}
+		return new ResponseEntity<Map<LocalDate, Long>>(clienteStatsService.countByDay(from, to), HttpStatus.OK);
+	}
+
+	//Se mapea el método a la Api como tipo GET
+	//Devuelve la cantidad de clientes creados por mes (yyyy-MM), opcionalmente entre las fechas from y to
+	@GetMapping("/clientes/stats/monthly")
+	public ResponseEntity<?> countByMonth(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		//Validar que el rango de fechas sea correcto
+		if (from != null && to != null && from.isAfter(to)) {
+			return invalidRange();
+		}
+		return new ResponseEntity<Map<String, Long>>(clienteStatsService.countByMonth(from, to), HttpStatus.OK);
+	}
+
+	//Se mapea el método a la Api como tipo GET
+	//Devuelve los dominios de email con más clientes, de mayor a menor
+	@GetMapping("/clientes/stats/domains")
+	public ResponseEntity<?> countByDomain(@RequestParam(required = false) Integer limit) {
+		//Limitar la cantidad de dominios solicitada al máximo permitido
+		int max = (limit == null || limit < 1) ? 20 : Math.min(limit, MAX_DOMAINS);
+		return new ResponseEntity<Map<String, Long>>(clienteStatsService.countByDomain(max), HttpStatus.OK);
+	}
+
+	//Método para armar la respuesta cuando la fecha inicial es posterior a la final
+	private ResponseEntity<?> invalidRange() {
+		Map<String, Object> response = new HashMap<String, Object>();
+		//Adicionar mensaje de error
+		response.put("mensaje", "La fecha 'from' no puede ser posterior a 'to'");
+		//Se añade el mensaje de error al response a devolver
+		return new ResponseEntity<Map<String, Object>>(response, HttpStatus.BAD_REQUEST);
+	}
+}
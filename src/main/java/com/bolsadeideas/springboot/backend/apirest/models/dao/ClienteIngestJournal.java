@@ -0,0 +1,163 @@
+package com.bolsadeideas.springboot.backend.apirest.models.dao;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+//Registro local de solo escritura al final (una línea JSON por evento) con los clientes recibidos por la cola asíncrona
+//Cada cliente se escribe al recibirse ("alta") y se marca al procesarse ("fin"), al reiniciar la aplicación
+//se recuperan los que no tienen marca de fin para volver a encolarlos
+public class ClienteIngestJournal implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(ClienteIngestJournal.class);
+
+	private static final String ALTA = "alta";
+	private static final String FIN = "fin";
+
+	private final Path file;
+	private final ObjectMapper objectMapper;
+	//Si es true cada escritura se sincroniza con el disco, de lo contrario solo se entrega al sistema operativo
+	private final boolean fsync;
+	//Tamaño a partir del cual se vacía el archivo cuando no quedan clientes pendientes
+	private final long compactBytes;
+
+	//Ids de seguimiento escritos en el registro que aún no se marcaron como procesados
+	private final Set<String> pending = new HashSet<String>();
+	private FileChannel channel;
+
+	public ClienteIngestJournal(Path file, ObjectMapper objectMapper, boolean fsync, long compactBytes) {
+		this.file = file;
+		this.objectMapper = objectMapper;
+		this.fsync = fsync;
+		this.compactBytes = compactBytes;
+	}
+
+	//Método para leer el registro y devolver los clientes pendientes en el orden en que se recibieron
+	//El archivo se reescribe solo con esas altas y queda abierto para agregar nuevas líneas
+	public synchronized Map<String, Cliente> recover() throws IOException {
+		Map<String, Cliente> recovered = new LinkedHashMap<String, Cliente>();
+		Files.createDirectories(file.toAbsolutePath().getParent());
+
+		if (Files.exists(file)) {
+			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					readLine(line, recovered);
+				}
+			}
+		}
+
+		//Se escribe un archivo nuevo con las altas pendientes y se reemplaza el anterior de forma atómica
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			for (Map.Entry<String, Cliente> entry : recovered.entrySet()) {
+				write(out, alta(entry.getKey(), entry.getValue()));
+			}
+			out.force(true);
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		pending.clear();
+		pending.addAll(recovered.keySet());
+		return recovered;
+	}
+
+	//Método para registrar un cliente recibido, al retornar la línea ya fue entregada al sistema operativo
+	public synchronized void append(String trackingId, Cliente cliente) {
+		try {
+			write(channel, alta(trackingId, cliente));
+			if (fsync) {
+				channel.force(false);
+			}
+			pending.add(trackingId);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	//Método para marcar como procesados los clientes de un lote
+	//Cuando no quedan pendientes y el archivo superó el tamaño indicado se vacía para que no crezca indefinidamente
+	public synchronized void markDone(Collection<String> trackingIds) {
+		try {
+			for (String trackingId : trackingIds) {
+				ObjectNode node = objectMapper.createObjectNode();
+				node.put("tipo", FIN);
+				node.put("trackingId", trackingId);
+				write(channel, node);
+				pending.remove(trackingId);
+			}
+
+			if (pending.isEmpty() && channel.size() >= compactBytes) {
+				channel.truncate(0);
+			}
+			if (fsync) {
+				channel.force(false);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	//Método para aplicar una línea del registro, una línea incompleta (escritura interrumpida) se descarta
+	private void readLine(String line, Map<String, Cliente> recovered) {
+		if (line.trim().isEmpty()) {
+			return;
+		}
+		try {
+			JsonNode node = objectMapper.readTree(line);
+			String trackingId = node.path("trackingId").asText();
+			if (ALTA.equals(node.path("tipo").asText())) {
+				recovered.put(trackingId, objectMapper.treeToValue(node.get("cliente"), Cliente.class));
+			} else {
+				recovered.remove(trackingId);
+			}
+		} catch (IOException e) {
+			log.warn("Se descarta una línea inválida del registro {}: {}", file, e.getMessage());
+		}
+	}
+
+	private ObjectNode alta(String trackingId, Cliente cliente) {
+		ObjectNode node = objectMapper.createObjectNode();
+		node.put("tipo", ALTA);
+		node.put("trackingId", trackingId);
+		node.set("cliente", objectMapper.valueToTree(cliente));
+		return node;
+	}
+
+	private void write(FileChannel out, JsonNode node) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap((objectMapper.writeValueAsString(node) + "\n").getBytes(StandardCharsets.UTF_8));
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package com.bolsadeideas.springboot.backend.apirest.models.dao;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//Implementación con DatabaseClient y SQL explícito, igual que el servicio de operaciones masivas
+//No se usa un repositorio de Spring Data R2DBC porque Cliente está anotada con Entity y en modo estricto
+//el módulo JPA reclamaría la interfaz al iniciar la variante servlet
+@Profile("reactive")
+@Repository
+public class ClienteReactiveDaoImpl implements IClienteReactiveDao {
+
+	//Las consultas excluyen los clientes eliminados, igual que la anotación Where de la entidad en la variante servlet
+	private static final String SELECT_SQL = "SELECT id, nombre, apellido, email, create_at, updated_at, version FROM clientes "
+			+ "WHERE deleted_at IS NULL";
+	private static final String INSERT_SQL = "INSERT INTO clientes (nombre, apellido, email, create_at, updated_at, version) "
+			+ "VALUES (:nombre, :apellido, :email, :createdAt, :updatedAt, :version)";
+	//Se incrementa la versión y se valida la esperada en el WHERE, igual que hace Hibernate con la anotación Version
+	private static final String UPDATE_SQL = "UPDATE clientes SET nombre = :nombre, apellido = :apellido, email = :email, "
+			+ "updated_at = :updatedAt, version = version + 1 WHERE id = :id AND version = :version AND deleted_at IS NULL";
+	//Borrado lógico con un único UPDATE
+	private static final String DELETE_SQL = "UPDATE clientes SET deleted_at = :deletedAt, version = version + 1 "
+			+ "WHERE id = :id AND deleted_at IS NULL";
+
+	//Se usa Autowired para inyección de dependencias
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Override
+	public Flux<Cliente> findAll() {
+		return databaseClient.sql(SELECT_SQL + " ORDER BY id").map(this::mapRow).all();
+	}
+
+	@Override
+	public Flux<Cliente> findAll(Pageable pageable) {
+		return databaseClient.sql(SELECT_SQL + " ORDER BY id LIMIT :limit OFFSET :offset")
+				.bind("limit", pageable.getPageSize())
+				.bind("offset", pageable.getOffset())
+				.map(this::mapRow)
+				.all();
+	}
+
+	@Override
+	public Mono<Long> count() {
+		return databaseClient.sql("SELECT COUNT(*) FROM clientes WHERE deleted_at IS NULL")
+				.map(row -> ((Number) row.get(0)).longValue())
+				.one();
+	}
+
+	@Override
+	public Flux<Cliente> findByIdGreaterThan(Long id, int limit) {
+		return databaseClient.sql(SELECT_SQL + " AND id > :id ORDER BY id LIMIT :limit")
+				.bind("id", id)
+				.bind("limit", limit)
+				.map(this::mapRow)
+				.all();
+	}
+
+	@Override
+	public Mono<Cliente> findById(Long id) {
+		return databaseClient.sql(SELECT_SQL + " AND id = :id")
+				.bind("id", id)
+				.map(this::mapRow)
+				.one();
+	}
+
+	@Override
+	public Mono<Cliente> insert(Cliente cliente) {
+		GenericExecuteSpec spec = bindFields(databaseClient.sql(INSERT_SQL), cliente)
+				.bind("createdAt", new java.sql.Date(cliente.getCreatedAt().getTime()).toLocalDate());
+		//Se solicita al driver el Id generado por la columna AUTO_INCREMENT
+		return spec.filter(statement -> statement.returnGeneratedValues("id"))
+				.map(row -> ((Number) row.get(0)).longValue())
+				.one()
+				.map(id -> {
+					cliente.setId(id);
+					return cliente;
+				});
+	}
+
+	@Override
+	public Mono<Integer> update(Cliente cliente) {
+		return bindFields(databaseClient.sql(UPDATE_SQL), cliente)
+				.bind("id", cliente.getId())
+				.fetch()
+				.rowsUpdated();
+	}
+
+	@Override
+	public Mono<Integer> deleteById(Long id) {
+		return databaseClient.sql(DELETE_SQL)
+				.bind("deletedAt", LocalDateTime.now())
+				.bind("id", id)
+				.fetch()
+				.rowsUpdated();
+	}
+
+	//Método para asignar los parámetros comunes del INSERT y el UPDATE
+	private GenericExecuteSpec bindFields(GenericExecuteSpec spec, Cliente cliente) {
+		//Los campos de texto llegan validados, por lo que ninguno es nulo
+		return spec.bind("nombre", cliente.getNombre())
+				.bind("apellido", cliente.getApellido())
+				.bind("email", Cliente.normalizeEmail(cliente.getEmail()))
+				.bind("updatedAt", new Timestamp(cliente.getUpdatedAt().getTime()).toLocalDateTime())
+				.bind("version", cliente.getVersion());
+	}
+
+	//Método para convertir una fila en un Cliente con los mismos tipos de fecha que entrega Hibernate
+	private Cliente mapRow(Row row) {
+		Cliente cliente = new Cliente();
+		cliente.setId(row.get("id", Long.class));
+		cliente.setNombre(row.get("nombre", String.class));
+		cliente.setApellido(row.get("apellido", String.class));
+		cliente.setEmail(row.get("email", String.class));
+		LocalDate createdAt = row.get("create_at", LocalDate.class);
+		cliente.setCreatedAt(createdAt != null ? java.sql.Date.valueOf(createdAt) : null);
+		LocalDateTime updatedAt = row.get("updated_at", LocalDateTime.class);
+		cliente.setUpdatedAt(updatedAt != null ? Timestamp.valueOf(updatedAt) : null);
+		cliente.setVersion(row.get("version", Long.class));
+		return cliente;
+	}
+}
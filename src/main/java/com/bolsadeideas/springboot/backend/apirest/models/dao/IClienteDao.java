@@ -1,8 +1,97 @@
 package com.bolsadeideas.springboot.backend.apirest.models.dao;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
 import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
 
-public interface IClienteDao extends JpaRepository<Cliente, Long> {
-	
+//Extiende IClienteDaoCustom para las proyecciones por campos y las actualizaciones parciales
+//Las consultas no incluyen los clientes eliminados por la anotación Where de la entidad
+public interface IClienteDao extends JpaRepository<Cliente, Long>, IClienteDaoCustom {
+
+	//Cantidad de filas que el driver JDBC trae por cada viaje a la base de datos al recorrer el cursor
+	public static final String STREAM_FETCH_SIZE = "1000";
+
+	//Método para recorrer todos los clientes como Stream usando un cursor en lugar de cargar la tabla completa
+	//Se indica el tamaño de fetch y que las entidades son de solo lectura para evitar copias para el dirty-checking
+	@QueryHints(value = {
+			@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+			@QueryHint(name = HINT_READONLY, value = "true"),
+			@QueryHint(name = HINT_CACHEABLE, value = "false")
+	})
+	@Query("select c from Cliente c order by c.id")
+	public Stream<Cliente> streamAll();
+
+	//Método para recorrer solo los emails de los clientes, se usa para cargar el filtro de emails duplicados
+	//Incluye los clientes eliminados que aún no se archivan, ya que su email sigue ocupando el índice único
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	@Query(value = "select email from clientes", nativeQuery = true)
+	public Stream<String> streamEmails();
+
+	//Métodos para validar si un email ya está registrado
+	//Son consultas nativas para que no aplique la anotación Where de la entidad y se incluyan los clientes eliminados
+	//Los emails se guardan en minúsculas (Cliente.normalizeEmail), por lo que se reciben normalizados y se comparan
+	//por igualdad usando el índice único
+	@Query(value = "select count(*) from clientes where email = ?1", nativeQuery = true)
+	public long countByEmailIncludingDeleted(String email);
+
+	@Query(value = "select count(*) from clientes where email = ?1 and id <> ?2", nativeQuery = true)
+	public long countByEmailAndIdNotIncludingDeleted(String email, Long id);
+
+	//Método para saber si el email pertenece a un cliente eliminado que aún no se archiva
+	@Query(value = "select count(*) from clientes where email = ?1 and deleted_at is not null", nativeQuery = true)
+	public long countDeletedByEmail(String email);
+
+	//Método para obtener los clientes cuyo Id es mayor al indicado (paginación por keyset)
+	//Al devolver List en lugar de Page no se ejecuta la consulta COUNT y el Pageable solo aporta el LIMIT
+	public List<Cliente> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+	//Método para eliminar un cliente (borrado lógico) con un único UPDATE, sin consultarlo antes
+	//Se incrementa la versión para que cambie el ETag, devuelve 0 si no existe o ya estaba eliminado
+	@Modifying
+	@Query("update Cliente c set c.deletedAt = ?2, c.version = c.version + 1 where c.id = ?1 and c.deletedAt is null")
+	public int softDeleteById(Long id, Date deletedAt);
+
+	//Método para contar los clientes agrupados por fecha de creación y dominio del email en una sola consulta,
+	//cada fila contiene la fecha, el dominio y la cantidad
+	@Query("select c.createdAt, substring(c.email, locate('@', c.email) + 1), count(c) from Cliente c "
+			+ "group by c.createdAt, substring(c.email, locate('@', c.email) + 1)")
+	public List<Object[]> countByCreatedAtAndDomain();
+
+	//Método para obtener la fecha de creación y el email de un cliente aunque esté eliminado, se usa para
+	//actualizar las estadísticas; es una consulta nativa para que no aplique la anotación Where de la entidad
+	@Query(value = "select create_at, email from clientes where id = ?1", nativeQuery = true)
+	public List<Object[]> findStatsKeyById(Long id);
+
+	//Método para obtener solo la versión de un cliente, permite validar el ETag sin cargar la entidad
+	@Query("select c.version from Cliente c where c.id = ?1")
+	public Long findVersionById(Long id);
+
+	//Métodos para la búsqueda por prefijo, cada uno recorre el índice de su campo desde la posición (valor, Id) indicada
+	//Los métodos de apellido y email excluyen los clientes que ya fueron entregados por los campos anteriores
+	@Query("select c from Cliente c where c.nombre like ?1 escape '!' "
+			+ "and (c.nombre > ?2 or (c.nombre = ?2 and c.id > ?3)) order by c.nombre, c.id")
+	public List<Cliente> searchByNombre(String prefix, String afterValue, Long afterId, Pageable pageable);
+
+	@Query("select c from Cliente c where c.apellido like ?1 escape '!' and c.nombre not like ?1 escape '!' "
+			+ "and (c.apellido > ?2 or (c.apellido = ?2 and c.id > ?3)) order by c.apellido, c.id")
+	public List<Cliente> searchByApellido(String prefix, String afterValue, Long afterId, Pageable pageable);
+
+	@Query("select c from Cliente c where c.email like ?1 escape '!' and c.nombre not like ?1 escape '!' "
+			+ "and (c.apellido is null or c.apellido not like ?1 escape '!') "
+			+ "and (c.email > ?2 or (c.email = ?2 and c.id > ?3)) order by c.email, c.id")
+	public List<Cliente> searchByEmail(String prefix, String afterValue, Long afterId, Pageable pageable);
 }
@@ -0,0 +1,36 @@
+package com.bolsadeideas.springboot.backend.apirest.models.dao;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+
+//Consultas de IClienteDao que dependen de los campos solicitados, Spring Data las implementa con IClienteDaoCustomImpl
+public interface IClienteDaoCustom {
+
+	//Campos que se pueden solicitar en las proyecciones (?fields=)
+	public static final List<String> PROJECTION_FIELDS = Collections.unmodifiableList(
+			Arrays.asList("id", "nombre", "apellido", "email", "createdAt"));
+
+	//Campos que se pueden modificar con una actualización parcial (PATCH)
+	public static final List<String> UPDATABLE_FIELDS = Collections.unmodifiableList(
+			Arrays.asList("nombre", "apellido", "email"));
+
+	//Métodos para consultar solo las columnas indicadas, cada cliente se devuelve como un mapa campo -> valor
+	public Stream<Map<String, Object>> streamFields(Set<String> fields);
+
+	public List<Map<String, Object>> findFields(Set<String> fields, Pageable pageable);
+
+	public List<Map<String, Object>> findFieldsByIdGreaterThan(Set<String> fields, Long id, int limit);
+
+	public Map<String, Object> findFieldsById(Set<String> fields, Long id);
+
+	//Método para actualizar solo los campos indicados con un único UPDATE, incrementando la versión
+	//Si version no es null solo se actualiza cuando coincide con la versión actual
+	//Devuelve la cantidad de filas actualizadas
+	public int updateFields(Long id, Map<String, Object> fields, Long version);
+}
@@ -0,0 +1,112 @@
+package com.bolsadeideas.springboot.backend.apirest.models.dao;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.TypedQuery;
+
+import org.springframework.data.domain.Pageable;
+
+//Implementación de las consultas por campos con JPQL dinámico
+//Los nombres de campo se validan contra PROJECTION_FIELDS / UPDATABLE_FIELDS antes de armar la consulta,
+//por lo que nunca se concatena texto enviado por el consumidor
+public class IClienteDaoCustomImpl implements IClienteDaoCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Stream<Map<String, Object>> streamFields(Set<String> fields) {
+		return selectFields(fields, "order by c.id")
+				.setHint(HINT_FETCH_SIZE, Integer.valueOf(IClienteDao.STREAM_FETCH_SIZE))
+				.getResultStream()
+				.map(this::toMap);
+	}
+
+	@Override
+	public List<Map<String, Object>> findFields(Set<String> fields, Pageable pageable) {
+		return toMaps(selectFields(fields, "order by c.id")
+				.setFirstResult((int) pageable.getOffset())
+				.setMaxResults(pageable.getPageSize())
+				.getResultList());
+	}
+
+	@Override
+	public List<Map<String, Object>> findFieldsByIdGreaterThan(Set<String> fields, Long id, int limit) {
+		return toMaps(selectFields(fields, "where c.id > :id order by c.id")
+				.setParameter("id", id)
+				.setMaxResults(limit)
+				.getResultList());
+	}
+
+	@Override
+	public Map<String, Object> findFieldsById(Set<String> fields, Long id) {
+		List<Map<String, Object>> result = toMaps(selectFields(fields, "where c.id = :id")
+				.setParameter("id", id)
+				.getResultList());
+		return result.isEmpty() ? null : result.get(0);
+	}
+
+	@Override
+	public int updateFields(Long id, Map<String, Object> fields, Long version) {
+		StringBuilder jpql = new StringBuilder("update Cliente c set ");
+		for (String field : fields.keySet()) {
+			jpql.append("c.").append(checkField(field, UPDATABLE_FIELDS)).append(" = :").append(field).append(", ");
+		}
+		//Se actualizan la fecha de modificación y la versión igual que en una actualización de la entidad
+		jpql.append("c.updatedAt = :updatedAt, c.version = c.version + 1 where c.id = :id and c.deletedAt is null");
+		if (version != null) {
+			jpql.append(" and c.version = :version");
+		}
+
+		Query query = entityManager.createQuery(jpql.toString());
+		fields.forEach(query::setParameter);
+		query.setParameter("updatedAt", new Date());
+		query.setParameter("id", id);
+		if (version != null) {
+			query.setParameter("version", version);
+		}
+		return query.executeUpdate();
+	}
+
+	//Método para armar la consulta de los campos indicados, con alias igual al nombre del campo
+	private TypedQuery<Tuple> selectFields(Set<String> fields, String condition) {
+		String select = fields.stream()
+				.map(field -> "c." + checkField(field, PROJECTION_FIELDS) + " as " + field)
+				.collect(Collectors.joining(", "));
+		return entityManager.createQuery("select " + select + " from Cliente c " + condition, Tuple.class);
+	}
+
+	//Método para validar que el campo sea uno de los permitidos
+	private String checkField(String field, List<String> allowed) {
+		if (!allowed.contains(field)) {
+			throw new IllegalArgumentException("El campo '" + field + "' no es válido");
+		}
+		return field;
+	}
+
+	private List<Map<String, Object>> toMaps(List<Tuple> tuples) {
+		return tuples.stream().map(this::toMap).collect(Collectors.toList());
+	}
+
+	//Método para convertir una fila en un mapa que conserva el orden de los campos solicitados
+	private Map<String, Object> toMap(Tuple tuple) {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		for (TupleElement<?> element : tuple.getElements()) {
+			map.put(element.getAlias(), tuple.get(element));
+		}
+		return map;
+	}
+}
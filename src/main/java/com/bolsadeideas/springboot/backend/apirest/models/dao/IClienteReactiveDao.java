@@ -0,0 +1,35 @@
+package com.bolsadeideas.springboot.backend.apirest.models.dao;
+
+import org.springframework.data.domain.Pageable;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//Acceso no bloqueante a la tabla clientes usando R2DBC, se usa en el perfil reactive
+public interface IClienteReactiveDao {
+
+	//Método para recorrer todos los clientes ordenados por Id, las filas se emiten a medida que el consumidor las solicita
+	public Flux<Cliente> findAll();
+
+	//Método para obtener una página de clientes ordenados por Id
+	public Flux<Cliente> findAll(Pageable pageable);
+
+	//Método para obtener la cantidad total de clientes
+	public Mono<Long> count();
+
+	//Método para obtener los clientes cuyo Id es mayor al indicado (paginación por keyset)
+	public Flux<Cliente> findByIdGreaterThan(Long id, int limit);
+
+	public Mono<Cliente> findById(Long id);
+
+	//Método para insertar un cliente, devuelve el cliente con el Id generado
+	public Mono<Cliente> insert(Cliente cliente);
+
+	//Método para actualizar un cliente solo si conserva la versión indicada, devuelve la cantidad de filas afectadas
+	public Mono<Integer> update(Cliente cliente);
+
+	//Método para eliminar un cliente, devuelve la cantidad de filas afectadas
+	public Mono<Integer> deleteById(Long id);
+}
@@ -0,0 +1,17 @@
+package com.bolsadeideas.springboot.backend.apirest.models.dao;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Usuario;
+
+public interface IUsuarioDao extends CrudRepository<Usuario, Long> {
+
+	//Método para obtener un usuario con sus roles en una sola consulta usando join fetch,
+	//evitando la consulta adicional por la relación LAZY de roles
+	//El resultado se guarda en caché ya que solo se consulta al iniciar sesión
+	@Cacheable(cacheNames = "usuarios", key = "#p0", unless = "#result == null")
+	@Query("select distinct u from Usuario u left join fetch u.roles where u.username = ?1")
+	public Usuario findByUsername(String username);
+}
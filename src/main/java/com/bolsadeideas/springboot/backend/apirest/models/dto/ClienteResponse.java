@@ -0,0 +1,26 @@
+package com.bolsadeideas.springboot.backend.apirest.models.dto;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+//Clase para devolver el resultado de crear o actualizar un cliente, con el mismo formato que el mapa
+//{"mensaje", "cliente"} que se usaba antes pero serializado como bean en lugar de recorrer un HashMap
+@JsonPropertyOrder({"mensaje", "cliente"})
+public class ClienteResponse {
+
+	private final String mensaje;
+	private final Cliente cliente;
+
+	public ClienteResponse(String mensaje, Cliente cliente) {
+		this.mensaje = mensaje;
+		this.cliente = cliente;
+	}
+
+	public String getMensaje() {
+		return mensaje;
+	}
+
+	public Cliente getCliente() {
+		return cliente;
+	}
+}
@@ -0,0 +1,55 @@
+package com.bolsadeideas.springboot.backend.apirest.models.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+//Clase para devolver una página con solo los datos que usa el front end para paginar
+//Se usa en lugar de serializar el Page de Spring Data, que incluye el Pageable, el Sort y otros campos redundantes
+@JsonPropertyOrder({"content", "number", "size", "totalElements", "totalPages", "first", "last"})
+public class PageResponse<T> {
+
+	private final List<T> content;
+	private final int number;
+	private final int size;
+	private final long totalElements;
+	private final int totalPages;
+
+	public PageResponse(Page<T> page) {
+		this.content = page.getContent();
+		this.number = page.getNumber();
+		this.size = page.getSize();
+		this.totalElements = page.getTotalElements();
+		this.totalPages = page.getTotalPages();
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public int getNumber() {
+		return number;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public long getTotalElements() {
+		return totalElements;
+	}
+
+	public int getTotalPages() {
+		return totalPages;
+	}
+
+	public boolean isFirst() {
+		return number == 0;
+	}
+
+	public boolean isLast() {
+		return number + 1 >= totalPages;
+	}
+}
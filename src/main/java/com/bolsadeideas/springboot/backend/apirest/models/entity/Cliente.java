@@ -2,24 +2,40 @@ package com.bolsadeideas.springboot.backend.apirest.models.entity;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.Locale;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Version;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.Where;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 //Decorador para indicar que es una entidad
 @Entity
 //Decorador para indicar el nombre de la tabla
-@Table(name = "clientes")
+//Se declaran índices por nombre y apellido (junto al Id) para las búsquedas por prefijo con paginación por keyset,
+//el email ya queda indexado por ser único, la fecha de eliminación se indexa para el proceso de archivado
+@Table(name = "clientes", indexes = {
+		@Index(name = "idx_clientes_nombre", columnList = "nombre, id"),
+		@Index(name = "idx_clientes_apellido", columnList = "apellido, id"),
+		@Index(name = "idx_clientes_deleted_at", columnList = "deleted_at")
+})
+//Decorador para que todas las consultas de Hibernate (incluida la búsqueda por Id) excluyan los clientes eliminados
+@Where(clause = "deleted_at is null")
 public class Cliente implements Serializable {
 
 	//Decorador para indicar dicho campo es la clave primaria de la tabla
@@ -55,11 +71,47 @@ public class Cliente implements Serializable {
 	@Temporal(TemporalType.DATE)
 	private Date createdAt;
 	
+	//Decorador para indicar que el campo es la versión de la entidad, Hibernate la incrementa en cada actualización
+	//y la usa para detectar modificaciones concurrentes (bloqueo optimista)
+	//Se usa como ETag del cliente, por lo que no se incluye en el JSON
+	@Version
+	@JsonIgnore
+	private Long version;
+	
+	//Fecha y hora de la última modificación, se usa para la cabecera Last-Modified
+	@Column(name = "updated_at")
+	@Temporal(TemporalType.TIMESTAMP)
+	@JsonIgnore
+	private Date updatedAt;
+	
+	//Fecha y hora de eliminación (borrado lógico), los clientes eliminados se mueven a clientes_archivo
+	//por ClienteArchiveServiceImpl una vez transcurrido el tiempo de retención
+	@Column(name = "deleted_at")
+	@Temporal(TemporalType.TIMESTAMP)
+	@JsonIgnore
+	private Date deletedAt;
+	
 	//Anotación para ejecutar operaciones antes de persistir la entidad en la base de datos
 	@PrePersist
 	public void prePersist() {
 		//Asignar como fecha de creación la fecha actual
 		createdAt = new Date();
+		updatedAt = new Date();
+		email = normalizeEmail(email);
+	}
+	
+	//Anotación para ejecutar operaciones antes de actualizar la entidad en la base de datos
+	@PreUpdate
+	public void preUpdate() {
+		//Asignar como fecha de modificación la fecha actual
+		updatedAt = new Date();
+		email = normalizeEmail(email);
+	}
+	
+	//Método para normalizar el email antes de guardarlo, se guarda en minúsculas para que la validación de duplicados
+	//pueda buscarlo en el índice único comparando por igualdad
+	public static String normalizeEmail(String email) {
+		return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
 	}
 	
 	public Long getId() {
@@ -92,6 +144,24 @@ public class Cliente implements Serializable {
 	public void setCreatedAt(Date createdAt) {
 		this.createdAt = createdAt;
 	}
+	public Long getVersion() {
+		return version;
+	}
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+	public Date getUpdatedAt() {
+		return updatedAt;
+	}
+	public void setUpdatedAt(Date updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+	public Date getDeletedAt() {
+		return deletedAt;
+	}
+	public void setDeletedAt(Date deletedAt) {
+		this.deletedAt = deletedAt;
+	}
 	
 	private static final long serialVersionUID = 1L;
 }
@@ -0,0 +1,108 @@
+package com.bolsadeideas.springboot.backend.apirest.models.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+//Decorador para indicar que es una entidad
+//Clientes eliminados que ClienteArchiveServiceImpl movió fuera de la tabla clientes, conservan su Id original
+//La tabla se llena con INSERT ... SELECT, la entidad se declara para que Hibernate la cree y valide junto al resto
+@Entity
+//Decorador para indicar el nombre de la tabla
+@Table(name = "clientes_archivo")
+public class ClienteArchivado implements Serializable {
+
+	//Decorador para indicar dicho campo es la clave primaria de la tabla, no se genera ya que se copia de clientes
+	@Id
+	private Long id;
+
+	@Column(nullable = false, length = 12)
+	private String nombre;
+
+	private String apellido;
+
+	@Column(nullable = false)
+	private String email;
+
+	@Column(name = "create_at")
+	@Temporal(TemporalType.DATE)
+	private Date createdAt;
+
+	@Column(name = "updated_at")
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date updatedAt;
+
+	@Column(name = "deleted_at")
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date deletedAt;
+
+	//Fecha y hora en que se movió a la tabla de archivo
+	@Column(name = "archived_at")
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date archivedAt;
+
+	private Long version;
+
+	public Long getId() {
+		return id;
+	}
+	public void setId(Long id) {
+		this.id = id;
+	}
+	public String getNombre() {
+		return nombre;
+	}
+	public void setNombre(String nombre) {
+		this.nombre = nombre;
+	}
+	public String getApellido() {
+		return apellido;
+	}
+	public void setApellido(String apellido) {
+		this.apellido = apellido;
+	}
+	public String getEmail() {
+		return email;
+	}
+	public void setEmail(String email) {
+		this.email = email;
+	}
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+	public Date getUpdatedAt() {
+		return updatedAt;
+	}
+	public void setUpdatedAt(Date updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+	public Date getDeletedAt() {
+		return deletedAt;
+	}
+	public void setDeletedAt(Date deletedAt) {
+		this.deletedAt = deletedAt;
+	}
+	public Date getArchivedAt() {
+		return archivedAt;
+	}
+	public void setArchivedAt(Date archivedAt) {
+		this.archivedAt = archivedAt;
+	}
+	public Long getVersion() {
+		return version;
+	}
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,120 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Con la anotación Service se indica a Spring que es una clase de servicio
+//Mueve periódicamente los clientes eliminados hace más de app.clientes.archive.retention a la tabla clientes_archivo,
+//por lotes y cada lote en su propia transacción, para que la tabla clientes y sus índices solo contengan clientes activos
+//Se crea al iniciar aunque esté activa la inicialización diferida para que se programe la tarea
+@Lazy(false)
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.clientes.archive.enabled", havingValue = "true", matchIfMissing = true)
+@Service
+public class ClienteArchiveServiceImpl implements IClienteArchiveService {
+
+	private static final Logger log = LoggerFactory.getLogger(ClienteArchiveServiceImpl.class);
+
+	//Se recorre el índice de deleted_at, que en InnoDB incluye el Id, desde los clientes eliminados hace más tiempo
+	private static final String SELECT_IDS_SQL = "SELECT id FROM clientes WHERE deleted_at < ? ORDER BY deleted_at, id LIMIT ?";
+	private static final String COPY_SQL = "INSERT INTO clientes_archivo (id, nombre, apellido, email, create_at, updated_at, deleted_at, version, archived_at) "
+			+ "SELECT id, nombre, apellido, email, create_at, updated_at, deleted_at, version, :archivedAt FROM clientes WHERE id IN (:ids)";
+	private static final String DELETE_SQL = "DELETE FROM clientes WHERE id IN (:ids)";
+
+	//Se usa Autowired para inyección de dependencias
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	//Se usa TransactionTemplate para que cada lote se confirme en su propia transacción
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	//Tiempo que un cliente eliminado permanece en la tabla clientes antes de archivarse
+	@Value("${app.clientes.archive.retention:30d}")
+	private Duration retention;
+
+	//Cantidad máxima de clientes que se mueven en cada transacción
+	@Value("${app.clientes.archive.batch-size:1000}")
+	private int batchSize;
+
+	private Counter archived;
+
+	@PostConstruct
+	public void init() {
+		archived = Counter.builder("clientes.archive.rows").register(meterRegistry);
+	}
+
+	@Override
+	//Con la anotación se ejecuta el método periódicamente, el intervalo usa el formato ISO-8601 (PT1H)
+	@Scheduled(initialDelayString = "${app.clientes.archive.interval:PT1H}", fixedDelayString = "${app.clientes.archive.interval:PT1H}")
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.archive", histogram = true)
+	public int archive() {
+		Timestamp before = new Timestamp(System.currentTimeMillis() - retention.toMillis());
+		int total = 0;
+		int count;
+
+		//Se procesan lotes hasta que uno quede incompleto, así las transacciones y los bloqueos se mantienen cortos
+		do {
+			try {
+				count = transactionTemplate.execute(status -> archiveBatch(before));
+			} catch (DuplicateKeyException e) {
+				//Con varias instancias otra puede estar archivando los mismos clientes, su lote se revierte y esta
+				//ejecución termina; los clientes que queden se archivan en la siguiente
+				log.info("Otra instancia está archivando los clientes eliminados antes de {}, se omite el lote", before);
+				break;
+			}
+			archived.increment(count);
+			total += count;
+		} while (count == batchSize);
+
+		if (total > 0) {
+			log.info("Se archivaron {} clientes eliminados antes de {}", total, before);
+		}
+		return total;
+	}
+
+	//Método para copiar un lote a la tabla de archivo y eliminarlo de la tabla clientes en la misma transacción
+	//Si otra instancia archiva el mismo lote el INSERT falla por la clave primaria y la transacción se revierte,
+	//si ya lo eliminó de la tabla clientes no se copia ni se cuenta
+	private int archiveBatch(Timestamp before) {
+		List<Long> ids = jdbcTemplate.queryForList(SELECT_IDS_SQL, Long.class, before, batchSize);
+		if (ids.isEmpty()) {
+			return 0;
+		}
+
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("ids", ids)
+				.addValue("archivedAt", new Timestamp(System.currentTimeMillis()));
+		namedParameterJdbcTemplate.update(COPY_SQL, params);
+		return namedParameterJdbcTemplate.update(DELETE_SQL, params);
+	}
+}
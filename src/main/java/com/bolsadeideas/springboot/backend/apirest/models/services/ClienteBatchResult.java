@@ -0,0 +1,41 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Clase para devolver el resultado de una operación masiva indicando los errores por cada elemento
+public class ClienteBatchResult {
+
+	//Cantidad de elementos procesados correctamente
+	private int procesados;
+	
+	//Listado de errores, cada uno indica la posición del elemento en la petición y sus mensajes
+	private List<Map<String, Object>> errores = new ArrayList<Map<String, Object>>();
+	
+	//Método para registrar elementos procesados correctamente
+	public void addProcesados(int cantidad) {
+		procesados += cantidad;
+	}
+	
+	//Método para registrar los errores de un elemento según su posición en la petición
+	public void addError(int index, List<String> mensajes) {
+		Map<String, Object> error = new HashMap<String, Object>();
+		error.put("index", index);
+		error.put("errors", mensajes);
+		errores.add(error);
+	}
+	
+	public boolean hasErrors() {
+		return !errores.isEmpty();
+	}
+
+	public int getProcesados() {
+		return procesados;
+	}
+
+	public List<Map<String, Object>> getErrores() {
+		return errores;
+	}
+}
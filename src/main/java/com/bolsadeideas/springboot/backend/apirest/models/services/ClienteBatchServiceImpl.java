@@ -0,0 +1,341 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bolsadeideas.springboot.backend.apirest.config.NearCacheManager;
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+import io.micrometer.core.annotation.Timed;
+
+//Con la anotación Service se indica a Spring que es una clase de servicio
+//Las operaciones masivas se ejecutan con JdbcTemplate.batchUpdate, ya que el Id IDENTITY de Cliente
+//impide que Hibernate agrupe los INSERT en lotes
+//El servicio usa JDBC, por lo que no se registra cuando está activo el perfil reactive
+@Profile("!reactive")
+@Service
+public class ClienteBatchServiceImpl implements IClienteBatchService {
+
+	private static final String INSERT_SQL = "INSERT INTO clientes (nombre, apellido, email, create_at, updated_at, version) VALUES (?, ?, ?, ?, ?, 0)";
+	//Se incrementa la versión igual que hace Hibernate para que cambie el ETag del cliente
+	//La fecha de creación no se modifica, igual que la actualización individual que conserva la del cliente actual
+	private static final String UPDATE_SQL = "UPDATE clientes SET nombre = ?, apellido = ?, email = ?, updated_at = ?, version = version + 1 WHERE id = ? AND deleted_at IS NULL";
+	//Borrado lógico igual que ClienteServiceImpl.delete, los clientes eliminados se archivan después
+	private static final String DELETE_SQL = "UPDATE clientes SET deleted_at = ?, version = version + 1 WHERE id = ? AND deleted_at IS NULL";
+	//El INSERT por lotes no devuelve los Id generados, se obtienen por el email (único) para los eventos de cambio
+	private static final String SELECT_IDS_SQL = "SELECT id, email FROM clientes WHERE email IN (:emails)";
+	//Fecha de creación y email de los clientes antes de modificarlos o eliminarlos, para actualizar las estadísticas
+	private static final String SELECT_STATS_KEYS_SQL = "SELECT id, create_at, email FROM clientes WHERE id IN (:ids) AND deleted_at IS NULL";
+
+	//Se usa Autowired para inyección de dependencias
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	//Se usa para publicar los cambios de cada bloque, que se envían por GET /api/clientes/changes al confirmarse
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	//Se usa TransactionTemplate para que cada bloque se confirme en su propia transacción
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	//Se usa el validador de Bean Validation para aplicar a cada elemento las reglas definidas en la entidad
+	@Autowired
+	private Validator validator;
+
+	//Se usa el filtro de emails para rechazar los duplicados sin enviar el bloque a la base de datos,
+	//un bloque que falla se reintenta elemento por elemento
+	@Autowired
+	private IClienteEmailService clienteEmailService;
+
+	//Se usa para actualizar los contadores de estadísticas al confirmarse cada bloque
+	@Autowired
+	private IClienteStatsService clienteStatsService;
+
+	//Se usa para invalidar las cachés de clientes en esta instancia y en las demás al terminar cada proceso
+	@Autowired
+	private NearCacheManager nearCacheManager;
+
+	//Cantidad de elementos que se envían a la base de datos en cada lote
+	@Value("${app.clientes.batch.chunk-size:1000}")
+	private int chunkSize;
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.batch.service", histogram = true)
+	public ClienteBatchResult insertAll(Iterator<Cliente> clientes) {
+		//Se asigna la fecha actual como fecha de creación y el email se guarda normalizado, igual que hace el PrePersist
+		//de la entidad
+		java.sql.Date createdAt = new java.sql.Date(System.currentTimeMillis());
+		Timestamp updatedAt = new Timestamp(createdAt.getTime());
+		ClienteBatchResult result = process(clientes, INSERT_SQL, cliente -> validateEmail(cliente, validate(cliente)), cliente -> new Object[] {
+				cliente.getNombre(), cliente.getApellido(), Cliente.normalizeEmail(cliente.getEmail()), createdAt, updatedAt }, false,
+				rows -> Collections.<Long, Object[]>emptyMap(), this::created);
+		//Se invalidan las páginas cacheadas en todas las instancias ya que se agregan nuevos clientes
+		nearCacheManager.invalidateAll("clientesPage");
+		return result;
+	}
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.batch.service", histogram = true)
+	public ClienteBatchResult updateAll(Iterator<Cliente> clientes) {
+		Timestamp updatedAt = new Timestamp(System.currentTimeMillis());
+		ClienteBatchResult result = process(clientes, UPDATE_SQL, cliente -> {
+			List<String> errors = new ArrayList<String>(validate(cliente));
+			//Validar que se haya indicado el Id del cliente a actualizar
+			if (cliente.getId() == null) {
+				errors.add("El campo 'id' no puede estar vacío");
+			}
+			return validateEmail(cliente, errors);
+		}, cliente -> new Object[] {
+				cliente.getNombre(), cliente.getApellido(), Cliente.normalizeEmail(cliente.getEmail()), updatedAt, cliente.getId() }, true,
+				rows -> findStatsKeys(rows, 4), this::updated);
+		invalidateCaches();
+		return result;
+	}
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.batch.service", histogram = true)
+	public ClienteBatchResult deleteAll(Iterator<Long> ids) {
+		Timestamp deletedAt = new Timestamp(System.currentTimeMillis());
+		ClienteBatchResult result = process(ids, DELETE_SQL, id -> id == null ? Collections.singletonList("El Id no puede estar vacío")
+				: Collections.<String>emptyList(), id -> new Object[] { deletedAt, id }, true,
+				rows -> findStatsKeys(rows, 1), this::deleted);
+		invalidateCaches();
+		return result;
+	}
+
+	//Método para invalidar los clientes y las páginas cacheadas en todas las instancias
+	//Se invalida toda la caché de clientes ya que los bloques se confirman sin cargar las entidades
+	private void invalidateCaches() {
+		nearCacheManager.invalidateAll("clientes");
+		nearCacheManager.invalidateAll("clientesPage");
+	}
+
+	//Métodos que se ejecutan en la transacción de cada bloque con las filas afectadas: actualizan las estadísticas
+	//(se aplican al confirmarse) y publican los eventos de cambio, igual que ClienteServiceImpl para un solo cliente
+	private void created(List<Object[]> rows, Map<Long, Object[]> anteriores) {
+		for (Object[] row : rows) {
+			clienteStatsService.created((Date) row[3], (String) row[2]);
+		}
+		publish(createdEvents(rows));
+	}
+
+	private void updated(List<Object[]> rows, Map<Long, Object[]> anteriores) {
+		for (Object[] row : rows) {
+			Object[] anterior = anteriores.get((Long) row[4]);
+			if (anterior != null) {
+				clienteStatsService.emailChanged((String) anterior[1], (String) row[2]);
+			}
+		}
+		//Igual que en la actualización parcial el evento no incluye el cliente, ya que no se carga la entidad
+		publish(events(ClienteChangeEvent.Tipo.ACTUALIZADO, rows, 4));
+	}
+
+	private void deleted(List<Object[]> rows, Map<Long, Object[]> anteriores) {
+		for (Object[] row : rows) {
+			Object[] anterior = anteriores.get((Long) row[1]);
+			if (anterior != null) {
+				clienteStatsService.deleted((Date) anterior[0], (String) anterior[1]);
+			}
+		}
+		publish(events(ClienteChangeEvent.Tipo.ELIMINADO, rows, 1));
+	}
+
+	//Método para obtener la fecha de creación y el email de los clientes de un bloque antes de enviar la sentencia,
+	//idIndex es la posición del Id en los parámetros de la sentencia
+	private Map<Long, Object[]> findStatsKeys(List<Object[]> rows, int idIndex) {
+		List<Long> ids = new ArrayList<Long>(rows.size());
+		for (Object[] row : rows) {
+			ids.add((Long) row[idIndex]);
+		}
+		Map<Long, Object[]> keys = new HashMap<Long, Object[]>();
+		namedParameterJdbcTemplate.query(SELECT_STATS_KEYS_SQL, Collections.singletonMap("ids", ids),
+				rs -> { keys.put(rs.getLong("id"), new Object[] { rs.getDate("create_at"), rs.getString("email") }); });
+		return keys;
+	}
+
+	//Método para armar los eventos de los clientes creados en un bloque, con el cliente igual que ClienteServiceImpl.save
+	private List<ClienteChangeEvent> createdEvents(List<Object[]> rows) {
+		List<String> emails = new ArrayList<String>(rows.size());
+		for (Object[] row : rows) {
+			emails.add((String) row[2]);
+		}
+		Map<String, Long> ids = new HashMap<String, Long>();
+		namedParameterJdbcTemplate.query(SELECT_IDS_SQL, Collections.singletonMap("emails", emails),
+				rs -> { ids.put(rs.getString("email"), rs.getLong("id")); });
+
+		List<ClienteChangeEvent> events = new ArrayList<ClienteChangeEvent>(rows.size());
+		for (Object[] row : rows) {
+			Cliente cliente = new Cliente();
+			cliente.setId(ids.get((String) row[2]));
+			cliente.setNombre((String) row[0]);
+			cliente.setApellido((String) row[1]);
+			cliente.setEmail((String) row[2]);
+			cliente.setCreatedAt((java.sql.Date) row[3]);
+			cliente.setUpdatedAt((Timestamp) row[4]);
+			cliente.setVersion(0L);
+			events.add(new ClienteChangeEvent(ClienteChangeEvent.Tipo.CREADO, cliente.getId(), cliente));
+		}
+		return events;
+	}
+
+	//Método para armar los eventos sin cliente de un bloque, idIndex es la posición del Id en los parámetros de la sentencia
+	private List<ClienteChangeEvent> events(ClienteChangeEvent.Tipo tipo, List<Object[]> rows, int idIndex) {
+		List<ClienteChangeEvent> events = new ArrayList<ClienteChangeEvent>(rows.size());
+		for (Object[] row : rows) {
+			events.add(new ClienteChangeEvent(tipo, (Long) row[idIndex], null));
+		}
+		return events;
+	}
+
+	//Método para validar un cliente con las reglas de la entidad y devolver los mensajes con el mismo formato del controlador
+	private List<String> validate(Cliente cliente) {
+		return validator.validate(cliente)
+				.stream()
+				.map(err -> "El campo '" + err.getPropertyPath() + "' " + err.getMessage())
+				.collect(Collectors.toList());
+	}
+
+	//Método para validar que el email no pertenezca a otro cliente, solo si el resto de validaciones fueron correctas
+	//Si el cliente es válido su email se agrega al filtro antes de enviarlo a la base de datos
+	private List<String> validateEmail(Cliente cliente, List<String> errors) {
+		if (!errors.isEmpty()) {
+			return errors;
+		}
+		if (clienteEmailService.exists(cliente.getEmail(), cliente.getId())) {
+			return Collections.singletonList(clienteEmailService.conflictMessage(cliente.getEmail()));
+		}
+		clienteEmailService.register(cliente.getEmail());
+		return errors;
+	}
+
+	//Método para recorrer los elementos validando cada uno y enviando los válidos a la base de datos por bloques
+	//Si requireRow es true se reporta como error cuando la sentencia no afecta ninguna fila
+	//En la transacción de cada bloque se ejecuta before antes de la sentencia y applied con las filas afectadas
+	private <T> ClienteBatchResult process(Iterator<T> items, String sql, Function<T, List<String>> validation,
+			Function<T, Object[]> mapper, boolean requireRow, Function<List<Object[]>, Map<Long, Object[]>> before,
+			BiConsumer<List<Object[]>, Map<Long, Object[]>> applied) {
+		ClienteBatchResult result = new ClienteBatchResult();
+		List<Object[]> chunk = new ArrayList<Object[]>(chunkSize);
+		List<Integer> indexes = new ArrayList<Integer>(chunkSize);
+		int index = 0;
+
+		while (items.hasNext()) {
+			T item = items.next();
+			List<String> errors = validation.apply(item);
+
+			//Validar si se obtuvieron errores, en ese caso el elemento no se envía a la base de datos
+			if (!errors.isEmpty()) {
+				result.addError(index, errors);
+			} else {
+				chunk.add(mapper.apply(item));
+				indexes.add(index);
+			}
+			index++;
+
+			//Cuando el bloque está completo se envía y se libera para mantener el uso de memoria acotado
+			if (chunk.size() >= chunkSize) {
+				flush(sql, chunk, indexes, requireRow, before, applied, result);
+			}
+		}
+
+		flush(sql, chunk, indexes, requireRow, before, applied, result);
+		return result;
+	}
+
+	//Método para ejecutar un bloque en una sola transacción usando JDBC batching
+	//Si el bloque falla se reintenta cada elemento por separado para reportar el error del elemento correspondiente
+	//Las estadísticas y los eventos de cambio se registran dentro de la transacción y se aplican cuando esta se confirma
+	private void flush(String sql, List<Object[]> chunk, List<Integer> indexes, boolean requireRow,
+			Function<List<Object[]>, Map<Long, Object[]>> before, BiConsumer<List<Object[]>, Map<Long, Object[]>> applied,
+			ClienteBatchResult result) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+
+		try {
+			int[] counts = transactionTemplate.execute(status -> {
+				Map<Long, Object[]> anteriores = before.apply(chunk);
+				int[] executed = jdbcTemplate.batchUpdate(sql, chunk);
+				List<Object[]> affected = new ArrayList<Object[]>(chunk.size());
+				for (int i = 0; i < executed.length; i++) {
+					if (!requireRow || executed[i] != 0) {
+						affected.add(chunk.get(i));
+					}
+				}
+				if (!affected.isEmpty()) {
+					applied.accept(affected, anteriores);
+				}
+				return executed;
+			});
+			for (int i = 0; i < counts.length; i++) {
+				registerCount(counts[i], indexes.get(i), requireRow, result);
+			}
+		} catch (DataAccessException e) {
+			for (int i = 0; i < chunk.size(); i++) {
+				Object[] args = chunk.get(i);
+				try {
+					int count = transactionTemplate.execute(status -> {
+						List<Object[]> row = Collections.singletonList(args);
+						Map<Long, Object[]> anteriores = before.apply(row);
+						int executed = jdbcTemplate.update(sql, args);
+						if (!requireRow || executed != 0) {
+							applied.accept(row, anteriores);
+						}
+						return executed;
+					});
+					registerCount(count, indexes.get(i), requireRow, result);
+				} catch (DataAccessException ex) {
+					//Adicionar mensaje de la excepción para el elemento que falló
+					result.addError(indexes.get(i), Collections.singletonList(
+							ex.getMessage().concat(" : ").concat(ex.getMostSpecificCause().getMessage())));
+				}
+			}
+		}
+
+		chunk.clear();
+		indexes.clear();
+	}
+
+	//Método para publicar los eventos de las filas afectadas en la transacción del bloque
+	private void publish(List<ClienteChangeEvent> events) {
+		eventPublisher.publishEvent(new ClienteChangeBatchEvent(events));
+	}
+
+	//Método para registrar el resultado de una sentencia, el driver puede devolver SUCCESS_NO_INFO (-2)
+	//cuando reescribe el lote como una sola sentencia, por lo que solo el valor 0 indica que no se afectaron filas
+	private void registerCount(int count, int index, boolean requireRow, ClienteBatchResult result) {
+		if (requireRow && count == 0) {
+			result.addError(index, Collections.singletonList("El cliente no existe"));
+		} else {
+			result.addProcesados(1);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.util.List;
+
+//Evento que ClienteBatchServiceImpl publica con los cambios de cada bloque de una operación masiva
+//Se publica uno por bloque en lugar de uno por cliente para que las cachés se invaliden una sola vez por operación;
+//al confirmarse la transacción del bloque sus cambios se copian al buffer de GET /api/clientes/changes
+public class ClienteChangeBatchEvent {
+
+	private final List<ClienteChangeEvent> events;
+
+	public ClienteChangeBatchEvent(List<ClienteChangeEvent> events) {
+		this.events = events;
+	}
+
+	public List<ClienteChangeEvent> getEvents() {
+		return events;
+	}
+}
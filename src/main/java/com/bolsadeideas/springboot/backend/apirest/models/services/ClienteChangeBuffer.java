@@ -0,0 +1,61 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+//Buffer circular de tamaño fijo con los últimos eventos de cambio de clientes
+//Cada evento recibe una posición consecutiva, los suscriptores leen desde la posición que necesitan, por lo que
+//el uso de memoria no depende de la cantidad de suscriptores ni de su velocidad; al llenarse se sobrescriben los más antiguos
+public class ClienteChangeBuffer {
+
+	private final ClienteChangeEvent[] events;
+	//Posición del primer evento, para que las posiciones de distintas ejecuciones de la aplicación no se repitan
+	private final long start;
+	//Posición que recibirá el siguiente evento
+	private long next;
+
+	public ClienteChangeBuffer(int capacity, long start) {
+		this.events = new ClienteChangeEvent[capacity];
+		this.start = start;
+		this.next = start;
+	}
+
+	//Método para agregar un evento, devuelve la copia con la posición asignada
+	public synchronized ClienteChangeEvent append(ClienteChangeEvent event) {
+		ClienteChangeEvent stored = event.withOffset(next);
+		events[index(next)] = stored;
+		next++;
+		return stored;
+	}
+
+	//Método para obtener hasta max eventos a partir de la posición indicada (incluida)
+	//Devuelve null si la posición ya fue sobrescrita o no existe, en ese caso el suscriptor perdió eventos
+	public synchronized List<ClienteChangeEvent> read(long from, int max) {
+		if (from < oldestOffset() || from > next) {
+			return null;
+		}
+		int count = (int) Math.min(max, next - from);
+		if (count <= 0) {
+			return Collections.emptyList();
+		}
+		List<ClienteChangeEvent> result = new ArrayList<ClienteChangeEvent>(count);
+		for (long offset = from; offset < from + count; offset++) {
+			result.add(events[index(offset)]);
+		}
+		return result;
+	}
+
+	//Posición del evento más antiguo que aún está en el buffer
+	public synchronized long oldestOffset() {
+		return Math.max(start, next - events.length);
+	}
+
+	public synchronized long nextOffset() {
+		return next;
+	}
+
+	private int index(long offset) {
+		return (int) Math.floorMod(offset, (long) events.length);
+	}
+}
@@ -0,0 +1,65 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.util.Date;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+//Evento que ClienteServiceImpl publica al crear, actualizar o eliminar un cliente
+//(las operaciones masivas lo publican agrupado por bloque en ClienteChangeBatchEvent)
+//Al confirmarse la transacción se copia al buffer de cambios, que le asigna su posición (offset),
+//y se envía a los suscriptores de GET /api/clientes/changes
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClienteChangeEvent {
+
+	public enum Tipo {
+		CREADO, ACTUALIZADO, ELIMINADO
+	}
+
+	//Posición del evento en el buffer, se envía como Id del evento SSE; -1 mientras no se agregue al buffer
+	@JsonIgnore
+	private final long offset;
+	private final Tipo tipo;
+	private final Long id;
+	//Cliente resultante, solo en las creaciones y actualizaciones completas
+	private final Cliente cliente;
+	private final Date fecha;
+
+	public ClienteChangeEvent(Tipo tipo, Long id, Cliente cliente) {
+		this(-1, tipo, id, cliente, new Date());
+	}
+
+	private ClienteChangeEvent(long offset, Tipo tipo, Long id, Cliente cliente, Date fecha) {
+		this.offset = offset;
+		this.tipo = tipo;
+		this.id = id;
+		this.cliente = cliente;
+		this.fecha = fecha;
+	}
+
+	//Método para obtener una copia del evento con la posición asignada por el buffer
+	public ClienteChangeEvent withOffset(long offset) {
+		return new ClienteChangeEvent(offset, tipo, id, cliente, fecha);
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public Tipo getTipo() {
+		return tipo;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Cliente getCliente() {
+		return cliente;
+	}
+
+	public Date getFecha() {
+		return fecha;
+	}
+}
@@ -0,0 +1,215 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+//Con la anotación Service se indica a Spring que es una clase de servicio
+//Los eventos de ClienteServiceImpl y de las operaciones masivas se guardan al confirmarse la transacción en un buffer
+//circular y un único hilo (clientes-changes) avisa a los suscriptores que hay eventos nuevos
+//Cada suscriptor guarda solo su posición en el buffer y recibe eventos a medida que Spring MVC termina de escribir
+//los anteriores (backpressure), por lo que un consumidor lento nunca bloquea al hilo ni a los demás suscriptores;
+//si se atrasa más que el tamaño del buffer recibe un evento "reset" y continúa desde el evento más antiguo
+@Profile("!reactive")
+@Service
+public class ClienteChangeServiceImpl implements IClienteChangeService {
+
+	private static final Logger log = LoggerFactory.getLogger(ClienteChangeServiceImpl.class);
+
+	//Cantidad máxima de eventos que se entregan a un suscriptor en cada lectura del buffer
+	private static final int READ_BATCH = 256;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	//Cantidad de eventos que se conservan para que los suscriptores se reconecten con Last-Event-ID
+	@Value("${app.clientes.changes.buffer-size:10000}")
+	private int bufferSize;
+
+	//Tiempo sin eventos tras el cual se envía un comentario para mantener abierta la conexión
+	@Value("${app.clientes.changes.heartbeat:15s}")
+	private Duration heartbeat;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	//Monitor con el que se despierta al hilo cuando se agrega un evento
+	private final Object signal = new Object();
+	private ClienteChangeBuffer buffer;
+	private Thread broadcaster;
+	private volatile boolean running;
+
+	@PostConstruct
+	public void start() {
+		//Las posiciones inician en el tiempo actual para que los Ids de una ejecución anterior se detecten como perdidos
+		buffer = new ClienteChangeBuffer(bufferSize, System.currentTimeMillis() * 1000);
+		Gauge.builder("clientes.changes.subscribers", subscribers, Set::size).register(meterRegistry);
+
+		running = true;
+		broadcaster = new Thread(this::broadcast, "clientes-changes");
+		broadcaster.setDaemon(true);
+		broadcaster.start();
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		broadcaster.interrupt();
+		broadcaster.join(heartbeat.toMillis());
+		//Se cierran las conexiones para que los consumidores se reconecten a otra instancia
+		subscribers.forEach(subscriber -> subscriber.sink.complete());
+	}
+
+	//Con la anotación el evento se recibe solo cuando se confirma la transacción que lo publicó,
+	//o inmediatamente si se publicó fuera de una transacción
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onChange(ClienteChangeEvent event) {
+		buffer.append(event);
+		synchronized (signal) {
+			signal.notifyAll();
+		}
+	}
+
+	//Los cambios de un bloque de una operación masiva se agregan juntos y se avisa una sola vez a los suscriptores
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onChanges(ClienteChangeBatchEvent batch) {
+		if (batch.getEvents().isEmpty()) {
+			return;
+		}
+		for (ClienteChangeEvent event : batch.getEvents()) {
+			buffer.append(event);
+		}
+		synchronized (signal) {
+			signal.notifyAll();
+		}
+	}
+
+	@Override
+	public Flux<ServerSentEvent<Object>> subscribe(String lastEventId) {
+		return Flux.create(sink -> {
+			Subscriber subscriber = new Subscriber(sink, startOffset(lastEventId));
+			subscribers.add(subscriber);
+			sink.onRequest(n -> subscriber.drain());
+			sink.onDispose(() -> subscribers.remove(subscriber));
+		});
+	}
+
+	//Método para obtener la posición desde la que se entregan eventos según el último Id recibido por el consumidor
+	//Un Id inválido se trata igual que uno que ya no está en el buffer
+	private long startOffset(String lastEventId) {
+		if (lastEventId == null || lastEventId.trim().isEmpty()) {
+			return buffer.nextOffset();
+		}
+		try {
+			return Long.parseLong(lastEventId.trim()) + 1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	//Método que ejecuta el hilo: espera eventos nuevos y avisa a los suscriptores que tienen demanda pendiente,
+	//si no hubo eventos durante el intervalo de heartbeat se envía un comentario a todos
+	private void broadcast() {
+		long notified = buffer.nextOffset();
+		while (running) {
+			try {
+				synchronized (signal) {
+					if (buffer.nextOffset() == notified) {
+						signal.wait(heartbeat.toMillis());
+					}
+				}
+				long next = buffer.nextOffset();
+				boolean idle = next == notified;
+				notified = next;
+				for (Subscriber subscriber : subscribers) {
+					if (idle) {
+						subscriber.heartbeat = true;
+					}
+					subscriber.drain();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("Error al notificar los cambios de clientes", e);
+			}
+		}
+	}
+
+	//Suscriptor a los cambios, solo guarda la posición del siguiente evento que debe recibir
+	private class Subscriber {
+
+		private final FluxSink<ServerSentEvent<Object>> sink;
+		//Cantidad de llamadas a drain pendientes, garantiza que un solo hilo emita a la vez para el suscriptor
+		private final AtomicInteger wip = new AtomicInteger();
+		private long next;
+		private volatile boolean heartbeat;
+
+		private Subscriber(FluxSink<ServerSentEvent<Object>> sink, long next) {
+			this.sink = sink;
+			this.next = next;
+		}
+
+		//Método para emitir los eventos disponibles según la demanda del suscriptor, nunca bloquea:
+		//si no hay demanda los eventos quedan en el buffer hasta que Spring MVC solicite más
+		private void drain() {
+			if (wip.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				long demand = sink.requestedFromDownstream();
+				while (demand > 0 && !sink.isCancelled()) {
+					List<ClienteChangeEvent> events = buffer.read(next, (int) Math.min(demand, READ_BATCH));
+					if (events == null) {
+						//El suscriptor perdió eventos, debe volver a consultar los clientes y continúa desde el más antiguo
+						next = buffer.oldestOffset();
+						sink.next(ServerSentEvent.builder()
+								.event("reset")
+								.data(Collections.singletonMap("mensaje", "Se perdieron eventos, vuelva a consultar los clientes"))
+								.build());
+						demand--;
+						continue;
+					}
+					if (events.isEmpty()) {
+						break;
+					}
+					for (ClienteChangeEvent event : events) {
+						sink.next(ServerSentEvent.builder()
+								.id(String.valueOf(event.getOffset()))
+								.event(event.getTipo().name().toLowerCase(Locale.ROOT))
+								.data(event)
+								.build());
+						next = event.getOffset() + 1;
+					}
+					heartbeat = false;
+					demand -= events.size();
+				}
+				if (heartbeat && demand > 0 && !sink.isCancelled()) {
+					heartbeat = false;
+					sink.next(ServerSentEvent.builder().comment("heartbeat").build());
+				}
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+	}
+}
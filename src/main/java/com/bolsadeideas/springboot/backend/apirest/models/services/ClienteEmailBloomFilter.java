@@ -0,0 +1,79 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//Filtro de Bloom para saber si un email ya fue registrado sin consultar la base de datos
+//Si mightContain devuelve false el email no existe, si devuelve true puede existir (falso positivo)
+//Se puede usar desde varios hilos, los bits se activan con operaciones atómicas
+public class ClienteEmailBloomFilter {
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashCount;
+	//Cantidad de emails para la que se dimensionó el filtro, al superarla aumentan los falsos positivos
+	private final long capacity;
+	private final AtomicLong size = new AtomicLong();
+
+	public ClienteEmailBloomFilter(long capacity, double falsePositiveRate) {
+		this.capacity = Math.max(capacity, 1);
+		//Tamaño y cantidad de funciones hash óptimos para la capacidad y tasa de falsos positivos indicadas
+		long m = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+		this.bitCount = bits.length() * 64L;
+		this.hashCount = (int) Math.max(1, Math.round((double) bitCount / this.capacity * Math.log(2)));
+	}
+
+	public void put(String value) {
+		long[] hashes = hash(value);
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(hashes[0] + i * hashes[1], bitCount);
+			int index = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long word;
+			do {
+				word = bits.get(index);
+				if ((word & mask) != 0) {
+					break;
+				}
+			} while (!bits.compareAndSet(index, word, word | mask));
+		}
+		size.incrementAndGet();
+	}
+
+	public boolean mightContain(String value) {
+		long[] hashes = hash(value);
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(hashes[0] + i * hashes[1], bitCount);
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//Indica si se agregaron más emails de los previstos y conviene reconstruir el filtro con mayor tamaño
+	public boolean isSaturated() {
+		return size.get() > capacity;
+	}
+
+	//Se calculan dos hash de 64 bits (FNV-1a con mezcla final) y se combinan para obtener las posiciones
+	private long[] hash(String value) {
+		long h = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			h ^= b & 0xff;
+			h *= 0x100000001b3L;
+		}
+		return new long[] { mix(h), mix(h ^ 0x9e3779b97f4a7c15L) | 1 };
+	}
+
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb93fe1a85ec3L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
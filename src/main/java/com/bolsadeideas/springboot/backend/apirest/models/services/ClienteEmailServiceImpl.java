@@ -0,0 +1,203 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bolsadeideas.springboot.backend.apirest.models.dao.IClienteDao;
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Con la anotación Service se indica a Spring que es una clase de servicio
+//Mantiene un filtro de Bloom con los emails registrados (normalizados en minúsculas) para detectar duplicados
+//antes de intentar el INSERT, solo cuando el filtro indica que el email puede existir se consulta el índice único
+//Los clientes eliminados siguen ocupando el índice único hasta que se archivan, por lo que su email se considera
+//registrado; los emails archivados solo provocan una consulta adicional hasta la siguiente reconstrucción del filtro
+//La restricción única de la tabla sigue siendo la garantía final
+//El filtro se carga al terminar el arranque para no retrasar la inicialización de JPA, mientras tanto se consulta la tabla
+//Cuando se satura se reconstruye en un hilo propio, fuera de la transacción del guardado que lo detectó
+@Profile("!reactive")
+@Service
+public class ClienteEmailServiceImpl implements IClienteEmailService {
+
+	private static final Logger log = LoggerFactory.getLogger(ClienteEmailServiceImpl.class);
+
+	//Se usa Autowired para inyección de dependencias
+	@Autowired
+	private IClienteDao clienteDao;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	//Cantidad mínima de emails para la que se dimensiona el filtro
+	@Value("${app.clientes.email-filter.expected-insertions:100000}")
+	private long expectedInsertions;
+
+	//Probabilidad de que el filtro indique que un email existe sin que exista
+	@Value("${app.clientes.email-filter.false-positive-rate:0.01}")
+	private double falsePositiveRate;
+
+	//Tiempo que un cliente eliminado se mantiene en la tabla antes de archivarse, se informa en el mensaje de conflicto
+	@Value("${app.clientes.archive.retention:30d}")
+	private String archiveRetention;
+
+	private volatile ClienteEmailBloomFilter filter;
+	//Hilo que reconstruye el filtro cuando se satura y marca de reconstrucción en curso para no encolarla dos veces
+	private ExecutorService rebuildExecutor;
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+	//Emails registrados mientras se reconstruye el filtro, el recorrido de la tabla puede no verlos si su transacción
+	//aún no se confirma, por lo que se agregan al filtro nuevo al terminar
+	private final Set<String> registeredDuringRebuild = ConcurrentHashMap.newKeySet();
+	private final Object swapLock = new Object();
+	//Resultados de la verificación: descartado por el filtro, duplicado confirmado o falso positivo
+	private Counter negatives;
+	private Counter duplicates;
+	private Counter falsePositives;
+
+	@PostConstruct
+	public void init() {
+		negatives = Counter.builder("clientes.email.check").tag("result", "negative").register(meterRegistry);
+		duplicates = Counter.builder("clientes.email.check").tag("result", "duplicate").register(meterRegistry);
+		falsePositives = Counter.builder("clientes.email.check").tag("result", "false-positive").register(meterRegistry);
+		rebuildExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("clientes-email-filter-"));
+	}
+
+	@PreDestroy
+	public void stop() {
+		rebuildExecutor.shutdownNow();
+	}
+
+	//Se carga el filtro antes de que la aplicación se marque como lista para recibir tráfico
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		rebuild();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public boolean exists(String email, Long excludeId) {
+		if (email == null) {
+			return false;
+		}
+		//Si el filtro descarta el email no existe y no se consulta la base de datos
+		ClienteEmailBloomFilter current = filter;
+		if (current != null && !current.mightContain(normalize(email))) {
+			negatives.increment();
+			return false;
+		}
+
+		//Los emails se guardan normalizados, por lo que la consulta usa el índice único
+		String normalized = normalize(email);
+		boolean exists = (excludeId == null ? clienteDao.countByEmailIncludingDeleted(normalized)
+				: clienteDao.countByEmailAndIdNotIncludingDeleted(normalized, excludeId)) > 0;
+		(exists ? duplicates : falsePositives).increment();
+		return exists;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public String conflictMessage(String email) {
+		//Se indica cuándo se podrá volver a registrar, en lugar de un conflicto sin explicación durante la retención
+		if (clienteDao.countDeletedByEmail(normalize(email)) > 0) {
+			return "El email ".concat(email).concat(" pertenece a un cliente eliminado, podrá registrarse nuevamente cuando el cliente se archive (")
+					.concat(archiveRetention).concat(" después de eliminarlo)");
+		}
+		return "El email ".concat(email).concat(" ya está registrado");
+	}
+
+	@Override
+	public void register(String email) {
+		if (email == null) {
+			return;
+		}
+		//Si el filtro aún no se carga el email quedará incluido al recorrer la tabla
+		String normalized = normalize(email);
+		//Se registra bajo el mismo candado con el que rebuild reemplaza el filtro, así cada email queda en el filtro
+		//que se reemplaza y en el conjunto que se copia al nuevo, o directamente en el nuevo
+		ClienteEmailBloomFilter current;
+		synchronized (swapLock) {
+			current = filter;
+			if (current == null) {
+				return;
+			}
+			current.put(normalized);
+			if (rebuilding.get() || current.isSaturated()) {
+				registeredDuringRebuild.add(normalized);
+			}
+		}
+		//Si se superó la capacidad prevista se reconstruye con el doble de tamaño para mantener la tasa de falsos positivos
+		//La reconstrucción recorre la tabla completa, por lo que se programa en otro hilo en lugar de hacerla dentro
+		//de la transacción del guardado; mientras tanto se sigue usando el filtro saturado
+		if (current.isSaturated() && rebuilding.compareAndSet(false, true)) {
+			try {
+				rebuildExecutor.execute(() -> {
+					try {
+						rebuild();
+					} catch (RuntimeException e) {
+						log.error("Error al reconstruir el filtro de emails", e);
+					} finally {
+						rebuilding.set(false);
+						registeredDuringRebuild.clear();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				//La aplicación se está deteniendo
+				rebuilding.set(false);
+			}
+		}
+	}
+
+	//Método para cargar el filtro recorriendo los emails de la tabla con un cursor
+	//El filtro anterior se sigue usando mientras se carga el nuevo
+	private synchronized void rebuild() {
+		if (filter != null && !filter.isSaturated()) {
+			return;
+		}
+		long count = clienteDao.count();
+		ClienteEmailBloomFilter nuevo = new ClienteEmailBloomFilter(Math.max(expectedInsertions, count * 2), falsePositiveRate);
+
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readOnly.executeWithoutResult(status -> {
+			try (Stream<String> emails = clienteDao.streamEmails()) {
+				emails.forEach(email -> nuevo.put(normalize(email)));
+			}
+		});
+		//Los emails registrados durante el recorrido se agregan antes de publicar el filtro nuevo, de lo contrario
+		//el filtro publicado podría descartar un email registrado (falso negativo)
+		synchronized (swapLock) {
+			registeredDuringRebuild.forEach(nuevo::put);
+			filter = nuevo;
+		}
+		log.info("Filtro de emails cargado con {} clientes", count);
+	}
+
+	private String normalize(String email) {
+		return Cliente.normalizeEmail(email);
+	}
+}
@@ -0,0 +1,337 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.bolsadeideas.springboot.backend.apirest.models.dao.ClienteIngestJournal;
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Con la anotación Service se indica a Spring que es una clase de servicio
+//Los clientes recibidos se guardan en una cola acotada y varios hilos los envían a la base de datos por lotes
+//con ClienteBatchServiceImpl, así los picos de creación no esperan a MySQL en la petición
+//Se activa con app.clientes.async.enabled=true (perfil "async"), si se indica app.clientes.async.log-dir los clientes
+//se registran en disco antes de confirmarse y se vuelven a encolar al reiniciar si no se alcanzaron a procesar
+//Se crea al iniciar aunque esté activa la inicialización diferida para reprocesar el registro sin esperar una petición
+@Lazy(false)
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.clientes.async.enabled", havingValue = "true")
+@Service
+public class ClienteIngestServiceImpl implements IClienteIngestService {
+
+	private static final Logger log = LoggerFactory.getLogger(ClienteIngestServiceImpl.class);
+
+	//Se usa Autowired para inyección de dependencias
+	@Autowired
+	private IClienteBatchService clienteBatchService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	//Cantidad máxima de clientes encolados o en proceso, al superarse se rechazan las peticiones
+	@Value("${app.clientes.async.capacity:10000}")
+	private int capacity;
+
+	//Cantidad de hilos que vacían la cola
+	@Value("${app.clientes.async.workers:2}")
+	private int workers;
+
+	//Cantidad máxima de clientes que se envían juntos a la base de datos
+	@Value("${app.clientes.async.batch-size:500}")
+	private int batchSize;
+
+	//Directorio del registro en disco, vacío para mantener la cola solo en memoria
+	@Value("${app.clientes.async.log-dir:}")
+	private String logDir;
+
+	//Si es true cada cliente se sincroniza con el disco antes de responder
+	@Value("${app.clientes.async.log-fsync:false}")
+	private boolean logFsync;
+
+	//Tiempo durante el que se puede consultar el estado de un cliente
+	@Value("${app.clientes.async.status-retention:1h}")
+	private Duration statusRetention;
+
+	//Cantidad de veces que se intenta crear un lote cuando falla por completo (por ejemplo si la base de datos no responde),
+	//al agotarse los intentos los clientes del lote quedan con estado ERROR
+	@Value("${app.clientes.async.max-attempts:3}")
+	private int maxAttempts;
+
+	//Espera antes del primer reintento de un lote, se duplica en cada intento
+	@Value("${app.clientes.async.retry-backoff:1s}")
+	private Duration retryBackoff;
+
+	//Tiempo máximo que se espera al detener la aplicación para procesar los clientes encolados
+	@Value("${app.clientes.async.shutdown-timeout:30s}")
+	private Duration shutdownTimeout;
+
+	private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<Pending>();
+	//Los permisos representan los lugares libres de la cola, se liberan cuando el lote termina de procesarse
+	private Semaphore permits;
+	private Cache<String, ClienteIngestStatus> statuses;
+	private ClienteIngestJournal journal;
+	private ExecutorService executor;
+	//Vuelve a encolar los lotes que fallaron cuando se cumple la espera del reintento
+	private ScheduledExecutorService retryScheduler;
+	private Counter rejected;
+	private Counter retried;
+	private Counter failed;
+	private volatile boolean running;
+
+	@PostConstruct
+	public void start() throws IOException, InterruptedException {
+		permits = new Semaphore(capacity);
+		statuses = Caffeine.newBuilder()
+				.expireAfterWrite(statusRetention.toMillis(), TimeUnit.MILLISECONDS)
+				.maximumSize(Math.max(capacity * 10L, 100000L))
+				.build();
+
+		//Métricas para observar la ocupación de la cola y las peticiones rechazadas
+		Gauge.builder("clientes.ingest.queue", queue, BlockingQueue::size).register(meterRegistry);
+		rejected = Counter.builder("clientes.ingest.rejected").register(meterRegistry);
+		retried = Counter.builder("clientes.ingest.retried").register(meterRegistry);
+		failed = Counter.builder("clientes.ingest.failed").register(meterRegistry);
+
+		running = true;
+		retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("clientes-ingest-retry-"));
+		executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("clientes-ingest-"));
+		for (int i = 0; i < workers; i++) {
+			executor.execute(this::drain);
+		}
+
+		if (!logDir.trim().isEmpty()) {
+			journal = new ClienteIngestJournal(Paths.get(logDir.trim(), "clientes-ingest.log"), objectMapper, logFsync, 1024 * 1024);
+			Map<String, Cliente> recovered = journal.recover();
+			if (!recovered.isEmpty()) {
+				log.info("Se vuelven a encolar {} clientes pendientes del registro", recovered.size());
+			}
+			//Los pendientes se encolan esperando lugar, ya que pueden superar la capacidad de la cola
+			for (Map.Entry<String, Cliente> entry : recovered.entrySet()) {
+				permits.acquire();
+				statuses.put(entry.getKey(), new ClienteIngestStatus(entry.getKey()));
+				queue.add(new Pending(entry.getKey(), entry.getValue()));
+			}
+		}
+	}
+
+	//Se deja de recibir clientes y se espera a que los hilos vacíen la cola
+	//Los que no se alcancen a procesar, incluidos los que esperan un reintento, quedan en el registro para el siguiente inicio
+	@PreDestroy
+	public void stop() throws IOException, InterruptedException {
+		running = false;
+		retryScheduler.shutdownNow();
+		executor.shutdown();
+		if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+			log.warn("Quedaron {} clientes sin procesar al detener la cola", queue.size());
+			executor.shutdownNow();
+		}
+		if (journal != null) {
+			journal.close();
+		}
+	}
+
+	@Override
+	public String submit(Cliente cliente) {
+		//Validar si hay lugar en la cola, de lo contrario se rechaza para que el consumidor reintente más tarde
+		if (!running || !permits.tryAcquire()) {
+			rejected.increment();
+			throw new RejectedExecutionException("La cola de clientes está llena");
+		}
+
+		String trackingId = UUID.randomUUID().toString();
+		try {
+			//Se registra en disco antes de encolarlo para que no se pierda si la aplicación se detiene
+			if (journal != null) {
+				journal.append(trackingId, cliente);
+			}
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+
+		statuses.put(trackingId, new ClienteIngestStatus(trackingId));
+		queue.add(new Pending(trackingId, cliente));
+		return trackingId;
+	}
+
+	@Override
+	public ClienteIngestStatus findStatus(String trackingId) {
+		return statuses.getIfPresent(trackingId);
+	}
+
+	//Método que ejecuta cada hilo: toma el primer cliente disponible y junto con él los que ya estén encolados,
+	//hasta batch-size, para enviarlos en un solo lote
+	private void drain() {
+		List<Pending> lote = new ArrayList<Pending>(batchSize);
+		while (running || !queue.isEmpty()) {
+			//Los clientes que se vuelven a encolar conservan su lugar en la cola hasta el reintento
+			int retrying = 0;
+			try {
+				Pending first = queue.poll(200, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				lote.add(first);
+				queue.drainTo(lote, batchSize - 1);
+				retrying = process(lote);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				//Los clientes del lote siguen pendientes en el registro y se reintentan al reiniciar
+				log.error("Error al procesar un lote de {} clientes", lote.size(), e);
+			} finally {
+				permits.release(lote.size() - retrying);
+				lote.clear();
+			}
+		}
+	}
+
+	//Método para crear los clientes del lote y registrar el resultado de cada uno
+	//Devuelve la cantidad de clientes que se volvieron a encolar porque el lote falló por completo
+	@SuppressWarnings("unchecked")
+	private int process(List<Pending> lote) {
+		ClienteBatchResult result;
+		try {
+			result = clienteBatchService.insertAll(lote.stream().map(Pending::getCliente).iterator());
+		} catch (RuntimeException e) {
+			return retry(lote, e);
+		}
+
+		//Los errores se reportan según la posición del cliente en el lote
+		Map<Integer, List<String>> errores = new HashMap<Integer, List<String>>();
+		for (Map<String, Object> error : result.getErrores()) {
+			errores.put((Integer) error.get("index"), (List<String>) error.get("errors"));
+		}
+
+		for (int i = 0; i < lote.size(); i++) {
+			ClienteIngestStatus status = statuses.getIfPresent(lote.get(i).getTrackingId());
+			if (status != null) {
+				status.complete(errores.getOrDefault(i, Collections.<String>emptyList()));
+			}
+		}
+
+		if (journal != null) {
+			journal.markDone(lote.stream().map(Pending::getTrackingId).collect(Collectors.toList()));
+		}
+		return 0;
+	}
+
+	//Método para volver a encolar con espera exponencial los clientes de un lote que falló por completo
+	//Los que agotaron sus intentos se marcan con ERROR y se quitan del registro para que no se reprocesen al reiniciar
+	//Devuelve la cantidad de clientes que se volvieron a encolar
+	private int retry(List<Pending> lote, RuntimeException e) {
+		//Si la aplicación se está deteniendo los clientes siguen en el registro para el siguiente inicio
+		if (!running) {
+			log.error("Error al procesar un lote de {} clientes", lote.size(), e);
+			return 0;
+		}
+		List<Pending> reintentos = new ArrayList<Pending>();
+		List<String> fallidos = new ArrayList<String>();
+		for (Pending pending : lote) {
+			if (pending.incrementAttempts() < maxAttempts) {
+				reintentos.add(pending);
+				continue;
+			}
+			ClienteIngestStatus status = statuses.getIfPresent(pending.getTrackingId());
+			if (status != null) {
+				status.complete(Collections.singletonList("Error al crear el cliente: ".concat(String.valueOf(e.getMessage()))));
+			}
+			fallidos.add(pending.getTrackingId());
+		}
+
+		if (!fallidos.isEmpty()) {
+			log.error("No se pudieron crear {} clientes después de {} intentos", fallidos.size(), maxAttempts, e);
+			failed.increment(fallidos.size());
+			if (journal != null) {
+				journal.markDone(fallidos);
+			}
+		}
+		if (!reintentos.isEmpty()) {
+			//El lote puede mezclar clientes reintentados con clientes nuevos, por lo que la espera se calcula según
+			//los intentos de cada uno y se programa un reintento por cada espera distinta
+			Map<Long, List<Pending>> porEspera = reintentos.stream()
+					.collect(Collectors.groupingBy(pending -> retryBackoff.toMillis() << Math.min(pending.getAttempts() - 1, 10)));
+			log.warn("Error al procesar un lote de {} clientes, se reintentan {} con esperas de {} ms", lote.size(), reintentos.size(),
+					porEspera.keySet(), e);
+			retried.increment(reintentos.size());
+			try {
+				for (Map.Entry<Long, List<Pending>> espera : porEspera.entrySet()) {
+					retryScheduler.schedule(() -> queue.addAll(espera.getValue()), espera.getKey(), TimeUnit.MILLISECONDS);
+				}
+			} catch (RejectedExecutionException ex) {
+				//La aplicación se está deteniendo, los clientes siguen en el registro para el siguiente inicio
+				return 0;
+			}
+		}
+		return reintentos.size();
+	}
+
+	//Cliente encolado junto a su Id de seguimiento
+	private static class Pending {
+
+		private final String trackingId;
+		private final Cliente cliente;
+		//Cantidad de lotes con este cliente que fallaron por completo
+		private int attempts;
+
+		private Pending(String trackingId, Cliente cliente) {
+			this.trackingId = trackingId;
+			this.cliente = cliente;
+		}
+
+		private String getTrackingId() {
+			return trackingId;
+		}
+
+		private Cliente getCliente() {
+			return cliente;
+		}
+
+		private int getAttempts() {
+			return attempts;
+		}
+
+		private int incrementAttempts() {
+			return ++attempts;
+		}
+	}
+}
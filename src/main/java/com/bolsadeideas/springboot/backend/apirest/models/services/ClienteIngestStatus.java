@@ -0,0 +1,52 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+//Clase para consultar el estado de un cliente recibido por la cola asíncrona según su Id de seguimiento
+public class ClienteIngestStatus {
+
+	public static final String PENDIENTE = "PENDIENTE";
+	public static final String COMPLETADO = "COMPLETADO";
+	public static final String ERROR = "ERROR";
+
+	private final String trackingId;
+	private volatile String estado = PENDIENTE;
+	//Mensajes de error cuando el cliente no se pudo crear
+	private volatile List<String> errors = Collections.emptyList();
+	private final Date recibido = new Date();
+	//Fecha en que se terminó de procesar, es null mientras está pendiente
+	private volatile Date procesado;
+
+	public ClienteIngestStatus(String trackingId) {
+		this.trackingId = trackingId;
+	}
+
+	//Método para registrar el resultado del procesamiento, si no hay errores el cliente quedó creado
+	public void complete(List<String> errors) {
+		this.errors = errors;
+		this.procesado = new Date();
+		this.estado = errors.isEmpty() ? COMPLETADO : ERROR;
+	}
+
+	public String getTrackingId() {
+		return trackingId;
+	}
+
+	public String getEstado() {
+		return estado;
+	}
+
+	public List<String> getErrors() {
+		return errors;
+	}
+
+	public Date getRecibido() {
+		return recibido;
+	}
+
+	public Date getProcesado() {
+		return procesado;
+	}
+}
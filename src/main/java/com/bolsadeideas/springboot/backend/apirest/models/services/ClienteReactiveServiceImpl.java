@@ -0,0 +1,92 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bolsadeideas.springboot.backend.apirest.models.dao.IClienteReactiveDao;
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//Con la anotación Service se indica a Spring que es una clase de servicio
+//Con la anotación Profile el servicio solo se registra en la variante reactiva de la Api
+@Profile("reactive")
+@Service
+public class ClienteReactiveServiceImpl implements IClienteReactiveService {
+
+	//Se usa Autowired para inyección de dependencias
+	@Autowired
+	private IClienteReactiveDao clienteDao;
+
+	@Override
+	public Flux<Cliente> findAll() {
+		return clienteDao.findAll();
+	}
+
+	@Override
+	//Con la anotación se ejecutan la consulta de la página y el conteo en la misma transacción de solo lectura
+	@Transactional(readOnly = true)
+	public Mono<Page<Cliente>> findAll(Pageable pageable) {
+		//Las consultas se encadenan porque una conexión R2DBC no admite consultas simultáneas
+		return clienteDao.findAll(pageable)
+				.collectList()
+				.flatMap(clientes -> clienteDao.count()
+						.<Page<Cliente>>map(total -> new PageImpl<Cliente>(clientes, pageable, total)));
+	}
+
+	@Override
+	public Flux<Cliente> findAllAfter(Long id, int size) {
+		return clienteDao.findByIdGreaterThan(id, size);
+	}
+
+	@Override
+	public Mono<Cliente> findById(Long id) {
+		return clienteDao.findById(id);
+	}
+
+	@Override
+	public Mono<Cliente> save(Cliente cliente) {
+		//Asignar las fechas y la versión que en la variante JPA asignan los callbacks de la entidad y Hibernate
+		Date now = new Date();
+		cliente.setUpdatedAt(now);
+
+		if (cliente.getId() == null) {
+			cliente.setCreatedAt(now);
+			cliente.setVersion(0L);
+			return clienteDao.insert(cliente);
+		}
+
+		return clienteDao.update(cliente).flatMap(count -> {
+			//Si no se actualizó ninguna fila el cliente fue modificado o eliminado por otro usuario
+			if (count == 0) {
+				return Mono.error(new OptimisticLockingFailureException(
+						"El cliente ID: ".concat(cliente.getId().toString()).concat(" no coincide con la versión ")
+						.concat(String.valueOf(cliente.getVersion()))));
+			}
+			cliente.setVersion(cliente.getVersion() + 1);
+			return Mono.just(cliente);
+		});
+	}
+
+	@Override
+	public Mono<Void> delete(Long id) {
+		return clienteDao.deleteById(id).flatMap(count -> {
+			//Se emite el mismo error que produce deleteById de Spring Data JPA cuando el cliente no existe
+			if (count == 0) {
+				return Mono.error(new EmptyResultDataAccessException(
+						String.format("No class %s entity with id %s exists!", Cliente.class.getName(), id), 1));
+			}
+			return Mono.empty();
+		});
+	}
+}
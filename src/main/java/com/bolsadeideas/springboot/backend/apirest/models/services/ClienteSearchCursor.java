@@ -0,0 +1,61 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+//Clase que representa la posición desde la que continúa una búsqueda por prefijo
+//La búsqueda recorre por etapas los campos nombre, apellido y email, y dentro de cada etapa
+//avanza por el índice del campo según el par (valor, Id) del último cliente entregado
+public class ClienteSearchCursor {
+
+	//Etapas de la búsqueda en el orden en que se recorren
+	public static final int NOMBRE = 0;
+	public static final int APELLIDO = 1;
+	public static final int EMAIL = 2;
+
+	//Posición inicial: primera etapa y antes de cualquier valor
+	public static final ClienteSearchCursor START = new ClienteSearchCursor(NOMBRE, "", 0L);
+
+	private final int stage;
+	private final String value;
+	private final Long id;
+
+	public ClienteSearchCursor(int stage, String value, Long id) {
+		this.stage = stage;
+		this.value = value;
+		this.id = id;
+	}
+
+	//Método para convertir el cursor en un texto opaco para el consumidor de la Api
+	public String encode() {
+		String raw = stage + "|" + id + "|" + value;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	//Método para obtener el cursor a partir del texto, lanza IllegalArgumentException si no es válido
+	public static ClienteSearchCursor decode(String cursor) {
+		String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		//El valor va al final ya que puede contener el separador
+		String[] parts = raw.split("\\|", 3);
+		if (parts.length != 3) {
+			throw new IllegalArgumentException("Cursor incompleto");
+		}
+		int stage = Integer.parseInt(parts[0]);
+		if (stage < NOMBRE || stage > EMAIL) {
+			throw new IllegalArgumentException("Etapa de búsqueda no válida");
+		}
+		return new ClienteSearchCursor(stage, parts[2], Long.valueOf(parts[1]));
+	}
+
+	public int getStage() {
+		return stage;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public Long getId() {
+		return id;
+	}
+}
@@ -0,0 +1,26 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.util.List;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+//Clase para devolver una página de resultados de la búsqueda junto con la posición para continuar
+public class ClienteSearchResult {
+
+	private final List<Cliente> content;
+	//Posición de la siguiente página, es null cuando no hay más resultados
+	private final ClienteSearchCursor next;
+
+	public ClienteSearchResult(List<Cliente> content, ClienteSearchCursor next) {
+		this.content = content;
+		this.next = next;
+	}
+
+	public List<Cliente> getContent() {
+		return content;
+	}
+
+	public ClienteSearchCursor getNext() {
+		return next;
+	}
+}
@@ -1,16 +1,43 @@
 package com.bolsadeideas.springboot.backend.apirest.models.services;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import com.bolsadeideas.springboot.backend.apirest.config.NearCacheManager;
 import com.bolsadeideas.springboot.backend.apirest.models.dao.IClienteDao;
 import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
 
+import io.micrometer.core.annotation.Timed;
+
 //Con la anotación Service se indica a Spring que es una clase de servicio
+//El servicio usa JPA, por lo que no se registra cuando está activo el perfil reactive
+@Profile("!reactive")
 @Service
 public class ClienteServiceImpl implements IClienteService {
 
@@ -18,7 +45,33 @@ public class ClienteServiceImpl implements IClienteService {
 	@Autowired
 	private IClienteDao clienteDao;
 	
+	//Se inyecta el CacheManager para consultar la caché de clientes sin pasar por la base de datos
+	@Autowired
+	private CacheManager cacheManager;
+	
+	//Se usa para invalidar la caché de clientes en las demás instancias al confirmarse cada modificación
+	@Autowired
+	private NearCacheManager nearCacheManager;
+	
+	//Se usa para mantener actualizado el filtro de emails con los clientes guardados
+	@Autowired
+	private IClienteEmailService clienteEmailService;
+	
+	//Se usa para mantener actualizadas las estadísticas con los clientes creados, modificados y eliminados
+	@Autowired
+	private IClienteStatsService clienteStatsService;
+	
+	//Se usa para publicar los eventos de cambio que se envían por GET /api/clientes/changes al confirmarse la transacción
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	//Se inyecta el EntityManager para poder desasociar las entidades ya procesadas
+	@PersistenceContext
+	private EntityManager entityManager;
+	
 	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
 	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
 	@Transactional(readOnly = true)
 	public List<Cliente> findAll() {
@@ -27,35 +80,268 @@ public class ClienteServiceImpl implements IClienteService {
 	}
 
 	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
+	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
+	//La transacción debe permanecer abierta mientras se recorre el cursor
+	@Transactional(readOnly = true)
+	public void exportAll(Consumer<Cliente> consumer) {
+		//Se usa try-with-resources para cerrar el cursor JDBC al terminar el recorrido
+		try (Stream<Cliente> clientes = clienteDao.streamAll()) {
+			clientes.forEach(cliente -> {
+				consumer.accept(cliente);
+				//Se desasocia la entidad del contexto de persistencia para que el uso de memoria se mantenga constante
+				entityManager.detach(cliente);
+			});
+		}
+	}
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
 	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
 	@Transactional(readOnly = true)
+	//Con la anotación se guarda el resultado en caché según el Id, los null no se almacenan
+	@Cacheable(cacheNames = "clientes", key = "#id", unless = "#result == null")
 	public Cliente findById(Long id) {
 		//Al ser tipo Optional se usa orElse para en caso de no encontrar el registro devolver un null
 		return clienteDao.findById(id).orElse(null);
 	}
 
 	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
+	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
+	@Transactional(readOnly = true)
+	public Long findVersionById(Long id) {
+		//Si el cliente está en caché se devuelve su versión, la caché se actualiza al guardar o eliminar
+		Cache cache = cacheManager.getCache("clientes");
+		Cliente cliente = cache != null ? cache.get(id, Cliente.class) : null;
+		if (cliente != null) {
+			return cliente.getVersion();
+		}
+		//Se llama al dao para consultar solo la columna de versión
+		return clienteDao.findVersionById(id);
+	}
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
 	//Con la anotación se indica transaccionalidad
 	@Transactional
+	//Con la anotación se actualiza la caché del cliente guardado y se invalidan las páginas cacheadas
+	@Caching(put = @CachePut(cacheNames = "clientes", key = "#result.id"),
+			evict = @CacheEvict(cacheNames = "clientesPage", allEntries = true))
 	public Cliente save(Cliente cliente) {
+		//Se agrega el email al filtro de duplicados antes de guardar, si el guardado falla solo queda un falso positivo
+		clienteEmailService.register(cliente.getEmail());
+		//Si se actualiza un cliente existente se obtiene su email anterior para las estadísticas por dominio
+		boolean nuevo = cliente.getId() == null;
+		Object[] anterior = nuevo ? null : findStatsKey(cliente.getId());
 		//Se llama al Dao para guardar la entidad
-		return clienteDao.save(cliente);
+		Cliente saved = clienteDao.save(cliente);
+		if (nuevo) {
+			clienteStatsService.created(saved.getCreatedAt(), saved.getEmail());
+		} else if (anterior != null) {
+			clienteStatsService.emailChanged((String) anterior[1], saved.getEmail());
+		}
+		eventPublisher.publishEvent(new ClienteChangeEvent(nuevo ? ClienteChangeEvent.Tipo.CREADO : ClienteChangeEvent.Tipo.ACTUALIZADO,
+				saved.getId(), saved));
+		return saved;
 	}
 
 	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
 	//Con la anotación se indica transaccionalidad
 	@Transactional
-	public void delete(Long id) {
-		//Se llama al Dao para eliminar el cliente según el Id
-		clienteDao.deleteById(id);
+	//Con la anotación se elimina el cliente de la caché y se invalidan las páginas cacheadas
+	@Caching(evict = {@CacheEvict(cacheNames = "clientes", key = "#id"),
+			@CacheEvict(cacheNames = "clientesPage", allEntries = true)})
+	public int delete(Long id) {
+		//Se llama al Dao para marcar el cliente como eliminado con un único UPDATE, sin cargar la entidad
+		int count = clienteDao.softDeleteById(id, new Date());
+		//Se descuenta de las estadísticas solo si se eliminó en esta llamada
+		Object[] key = count > 0 ? findStatsKey(id) : null;
+		if (key != null) {
+			clienteStatsService.deleted((Date) key[0], (String) key[1]);
+		}
+		if (count > 0) {
+			eventPublisher.publishEvent(new ClienteChangeEvent(ClienteChangeEvent.Tipo.ELIMINADO, id, null));
+		}
+		return count;
 	}
 
 	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
 	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
 	@Transactional(readOnly = true)
+	//Con la anotación se guarda en caché la página consultada según el objeto Pageable
+	@Cacheable(cacheNames = "clientesPage", key = "#pageable")
 	public Page<Cliente> findAll(Pageable pageable) {
 		//Se llama al dao para obtener el listado de clientes usando paginación
 		return clienteDao.findAll(pageable);
 	}
 
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
+	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
+	@Transactional(readOnly = true)
+	public List<Cliente> findAllAfter(Long id, int size) {
+		//Se llama al dao para obtener los clientes a partir del Id indicado, la página siempre es la 0
+		//ya que el desplazamiento lo da la condición sobre el Id y no un OFFSET
+		return clienteDao.findByIdGreaterThanOrderByIdAsc(id, PageRequest.of(0, size));
+	}
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
+	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
+	@Transactional(readOnly = true)
+	public ClienteSearchResult search(String prefix, ClienteSearchCursor cursor, int size) {
+		//Se escapan los comodines de LIKE para que el texto se busque de forma literal como prefijo
+		String pattern = prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+		List<Cliente> clientes = new ArrayList<Cliente>();
+		//Etapa en la que se encontró cada cliente, necesaria para armar el cursor de la siguiente página
+		List<Integer> stages = new ArrayList<Integer>();
+		int stage = cursor.getStage();
+		String afterValue = cursor.getValue();
+		Long afterId = cursor.getId();
+
+		//Se recorren las etapas pidiendo un registro adicional para saber si existe una página siguiente
+		while (stage <= ClienteSearchCursor.EMAIL && clientes.size() <= size) {
+			Pageable pageable = PageRequest.of(0, size + 1 - clientes.size());
+			List<Cliente> found;
+			switch (stage) {
+			case ClienteSearchCursor.NOMBRE:
+				found = clienteDao.searchByNombre(pattern, afterValue, afterId, pageable);
+				break;
+			case ClienteSearchCursor.APELLIDO:
+				found = clienteDao.searchByApellido(pattern, afterValue, afterId, pageable);
+				break;
+			default:
+				found = clienteDao.searchByEmail(pattern, afterValue, afterId, pageable);
+				break;
+			}
+			for (Cliente cliente : found) {
+				clientes.add(cliente);
+				stages.add(stage);
+			}
+			//La siguiente etapa se recorre desde el principio de su índice
+			stage++;
+			afterValue = "";
+			afterId = 0L;
+		}
+
+		//Si se obtuvo el registro adicional se descarta y se arma el cursor con el último cliente entregado
+		if (clientes.size() > size) {
+			Cliente last = clientes.get(size - 1);
+			int lastStage = stages.get(size - 1);
+			String value = lastStage == ClienteSearchCursor.NOMBRE ? last.getNombre()
+					: lastStage == ClienteSearchCursor.APELLIDO ? last.getApellido() : last.getEmail();
+			return new ClienteSearchResult(clientes.subList(0, size), new ClienteSearchCursor(lastStage, value, last.getId()));
+		}
+		return new ClienteSearchResult(clientes, null);
+	}
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
+	//Con la anotación se indica transaccionalidad
+	@Transactional
+	//Con la anotación se elimina el cliente de la caché y se invalidan las páginas cacheadas,
+	//ya que el UPDATE se ejecuta directamente en la base de datos sin pasar por la entidad
+	@Caching(evict = {@CacheEvict(cacheNames = "clientes", key = "#id"),
+			@CacheEvict(cacheNames = "clientesPage", allEntries = true)})
+	public int patch(Long id, Map<String, Object> fields, Long version) {
+		//Se agrega el email al filtro de duplicados si se está modificando
+		//y se obtiene el email anterior para las estadísticas por dominio
+		Object[] anterior = null;
+		if (fields.get("email") instanceof String) {
+			//El UPDATE no pasa por el PreUpdate de la entidad, por lo que el email se normaliza aquí
+			fields = new LinkedHashMap<String, Object>(fields);
+			fields.put("email", Cliente.normalizeEmail((String) fields.get("email")));
+			clienteEmailService.register((String) fields.get("email"));
+			anterior = findStatsKey(id);
+		}
+		//Se llama al dao para actualizar solo los campos recibidos con un único UPDATE
+		int count = clienteDao.updateFields(id, fields, version);
+		if (count > 0 && anterior != null) {
+			clienteStatsService.emailChanged((String) anterior[1], (String) fields.get("email"));
+		}
+		//En la actualización parcial el evento no incluye el cliente, ya que no se carga la entidad
+		if (count > 0) {
+			eventPublisher.publishEvent(new ClienteChangeEvent(ClienteChangeEvent.Tipo.ACTUALIZADO, id, null));
+		}
+		return count;
+	}
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
+	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
+	//La transacción debe permanecer abierta mientras se recorre el cursor
+	@Transactional(readOnly = true)
+	public void exportAll(Set<String> fields, Consumer<Map<String, Object>> consumer) {
+		//Se usa try-with-resources para cerrar el cursor JDBC al terminar el recorrido
+		//Las filas no son entidades, por lo que no quedan en el contexto de persistencia
+		try (Stream<Map<String, Object>> clientes = clienteDao.streamFields(fields)) {
+			clientes.forEach(consumer);
+		}
+	}
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
+	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
+	@Transactional(readOnly = true)
+	public Page<Map<String, Object>> findAll(Set<String> fields, Pageable pageable) {
+		//Se llama al dao para obtener los campos de la página y el total de clientes
+		return new PageImpl<Map<String, Object>>(clienteDao.findFields(fields, pageable), pageable, clienteDao.count());
+	}
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
+	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
+	@Transactional(readOnly = true)
+	public List<Map<String, Object>> findAllAfter(Set<String> fields, Long id, int size) {
+		//Se llama al dao para obtener los campos de los clientes a partir del Id indicado
+		return clienteDao.findFieldsByIdGreaterThan(fields, id, size);
+	}
+
+	@Override
+	//Con la anotación se registra el tiempo de ejecución y los errores del método en Micrometer
+	@Timed(value = "clientes.service", histogram = true)
+	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
+	@Transactional(readOnly = true)
+	public Map<String, Object> findById(Set<String> fields, Long id) {
+		//Se llama al dao para obtener los campos del cliente, null si no existe
+		return clienteDao.findFieldsById(fields, id);
+	}
+
+	//Con la anotación el evento se recibe solo cuando se confirma la transacción que lo publicó,
+	//o inmediatamente si se publicó fuera de una transacción
+	//Se invalida el cliente con una versión anterior a la guardada (cualquier versión si se desconoce, como al eliminar
+	//o en la actualización parcial) y las páginas cacheadas, en esta instancia y en las demás
+	@TransactionalEventListener(fallbackExecution = true)
+	public void invalidateCaches(ClienteChangeEvent event) {
+		Long version = event.getCliente() != null ? event.getCliente().getVersion() : null;
+		nearCacheManager.invalidate("clientes", event.getId(), version);
+		nearCacheManager.invalidateAll("clientesPage");
+	}
+
+	//Método para obtener la fecha de creación y el email de un cliente para las estadísticas
+	//Si el cliente está en caché no se consulta la base de datos, la caché se actualiza o invalida en cada modificación
+	private Object[] findStatsKey(Long id) {
+		Cache cache = cacheManager.getCache("clientes");
+		Cliente cliente = cache != null ? cache.get(id, Cliente.class) : null;
+		if (cliente != null) {
+			return new Object[] { cliente.getCreatedAt(), cliente.getEmail() };
+		}
+		List<Object[]> rows = clienteDao.findStatsKeyById(id);
+		return rows.isEmpty() ? null : rows.get(0);
+	}
 }
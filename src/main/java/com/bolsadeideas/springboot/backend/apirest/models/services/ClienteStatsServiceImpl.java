@@ -0,0 +1,290 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bolsadeideas.springboot.backend.apirest.models.dao.IClienteDao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Con la anotación Service se indica a Spring que es una clase de servicio
+//Mantiene en memoria la cantidad de clientes en total, por día de creación y por dominio del email
+//Los contadores se calculan al iniciar con una sola consulta agrupada y luego ClienteServiceImpl (y ClienteBatchServiceImpl
+//en las operaciones masivas y la cola asíncrona) los actualiza al guardar, modificar o eliminar clientes, por lo que las
+//consultas de estadísticas no recorren la tabla; las diferencias por cambios concurrentes se corrigen al reconciliar
+//Se crea al iniciar aunque esté activa la inicialización diferida para que se programe la reconciliación
+@Lazy(false)
+@Profile("!reactive")
+@Service
+public class ClienteStatsServiceImpl implements IClienteStatsService {
+
+	private static final Logger log = LoggerFactory.getLogger(ClienteStatsServiceImpl.class);
+
+	//Se usa Autowired para inyección de dependencias
+	@Autowired
+	private IClienteDao clienteDao;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	//Contadores vigentes, se reemplazan completos al reconciliar
+	private volatile Aggregates aggregates;
+	//Cantidad de diferencias corregidas por la reconciliación
+	private Counter drift;
+
+	@PostConstruct
+	public void init() {
+		drift = Counter.builder("clientes.stats.drift").register(meterRegistry);
+		Gauge.builder("clientes.stats.total", this, service -> service.aggregates == null ? 0 : service.aggregates.total.get())
+				.register(meterRegistry);
+	}
+
+	//Se calculan los contadores antes de que la aplicación se marque como lista para recibir tráfico
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		current();
+	}
+
+	@Override
+	public long count() {
+		return current().total.get();
+	}
+
+	@Override
+	public Map<LocalDate, Long> countByDay(LocalDate from, LocalDate to) {
+		Map<LocalDate, Long> result = new LinkedHashMap<LocalDate, Long>();
+		range(current().byDay, from, to).forEach((day, count) -> {
+			if (count.get() > 0) {
+				result.put(day, count.get());
+			}
+		});
+		return result;
+	}
+
+	@Override
+	public Map<String, Long> countByMonth(LocalDate from, LocalDate to) {
+		//Los días están ordenados, por lo que los meses quedan en orden al agruparlos
+		Map<String, Long> result = new LinkedHashMap<String, Long>();
+		range(current().byDay, from, to).forEach((day, count) -> {
+			if (count.get() > 0) {
+				result.merge(YearMonth.from(day).toString(), count.get(), Long::sum);
+			}
+		});
+		return result;
+	}
+
+	@Override
+	public Map<String, Long> countByDomain(int limit) {
+		Map<String, Long> result = new LinkedHashMap<String, Long>();
+		current().byDomain.entrySet().stream()
+				.map(entry -> Map.entry(entry.getKey(), entry.getValue().get()))
+				.filter(entry -> entry.getValue() > 0)
+				.sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+				.limit(limit)
+				.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+		return result;
+	}
+
+	@Override
+	public void created(Date createdAt, String email) {
+		afterCommit(() -> update(toLocalDate(createdAt), domain(email), 1));
+	}
+
+	@Override
+	public void deleted(Date createdAt, String email) {
+		afterCommit(() -> update(toLocalDate(createdAt), domain(email), -1));
+	}
+
+	@Override
+	public void emailChanged(String oldEmail, String newEmail) {
+		String oldDomain = domain(oldEmail);
+		String newDomain = domain(newEmail);
+		if (oldDomain.equals(newDomain)) {
+			return;
+		}
+		afterCommit(() -> {
+			Aggregates current = aggregates;
+			if (current != null) {
+				current.addDomain(oldDomain, -1);
+				current.addDomain(newDomain, 1);
+			}
+		});
+	}
+
+	@Override
+	//Con la anotación se ejecuta el método periódicamente, el intervalo usa el formato ISO-8601 (PT5M)
+	//Los cambios confirmados mientras se ejecuta la consulta pueden quedar contados dos veces o ninguna,
+	//la siguiente reconciliación los corrige
+	@Scheduled(initialDelayString = "${app.clientes.stats.reconcile-interval:PT5M}",
+			fixedDelayString = "${app.clientes.stats.reconcile-interval:PT5M}")
+	public synchronized void reconcile() {
+		Aggregates actual = load();
+		Aggregates previous = aggregates;
+		if (previous != null) {
+			long differences = previous.diff(actual);
+			if (differences > 0) {
+				drift.increment(differences);
+				log.warn("Se corrigieron {} diferencias en las estadísticas de clientes", differences);
+			}
+		}
+		aggregates = actual;
+	}
+
+	//Método para obtener los contadores, si aún no se calcularon se cargan en este momento
+	private Aggregates current() {
+		Aggregates current = aggregates;
+		if (current != null) {
+			return current;
+		}
+		synchronized (this) {
+			if (aggregates == null) {
+				aggregates = load();
+			}
+			return aggregates;
+		}
+	}
+
+	//Método para calcular los contadores con la consulta agrupada por fecha de creación y dominio
+	private Aggregates load() {
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		List<Object[]> rows = readOnly.execute(status -> clienteDao.countByCreatedAtAndDomain());
+
+		Aggregates loaded = new Aggregates();
+		for (Object[] row : rows) {
+			loaded.add(toLocalDate((Date) row[0]), normalize((String) row[1]), ((Number) row[2]).longValue());
+		}
+		log.info("Estadísticas de clientes cargadas con {} clientes", loaded.total.get());
+		return loaded;
+	}
+
+	//Método para aplicar un cambio a los contadores, si aún no se cargaron el cliente se incluirá en la carga
+	private void update(LocalDate day, String domain, long delta) {
+		Aggregates current = aggregates;
+		if (current != null) {
+			current.add(day, domain, delta);
+		}
+	}
+
+	//Método para aplicar el cambio cuando se confirme la transacción, así un rollback no altera los contadores
+	private void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	private NavigableMap<LocalDate, AtomicLong> range(ConcurrentNavigableMap<LocalDate, AtomicLong> byDay, LocalDate from, LocalDate to) {
+		if (from != null && to != null) {
+			return byDay.subMap(from, true, to, true);
+		}
+		if (from != null) {
+			return byDay.tailMap(from, true);
+		}
+		return to != null ? byDay.headMap(to, true) : byDay;
+	}
+
+	//Método para obtener el día de creación, Hibernate entrega java.sql.Date al leer y java.util.Date al crear
+	private static LocalDate toLocalDate(Date date) {
+		if (date == null) {
+			return null;
+		}
+		if (date instanceof java.sql.Date) {
+			return ((java.sql.Date) date).toLocalDate();
+		}
+		return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+
+	//Método para obtener el dominio del email, igual que la consulta agrupada (texto después de la primera @)
+	private static String domain(String email) {
+		if (email == null) {
+			return "";
+		}
+		return normalize(email.substring(email.indexOf('@') + 1));
+	}
+
+	private static String normalize(String domain) {
+		return domain == null ? "" : domain.trim().toLowerCase(Locale.ROOT);
+	}
+
+	//Contadores en memoria, cada uno se actualiza de forma atómica
+	private static class Aggregates {
+
+		private final AtomicLong total = new AtomicLong();
+		private final ConcurrentNavigableMap<LocalDate, AtomicLong> byDay = new ConcurrentSkipListMap<LocalDate, AtomicLong>();
+		private final ConcurrentMap<String, AtomicLong> byDomain = new ConcurrentHashMap<String, AtomicLong>();
+
+		private void add(LocalDate day, String domain, long delta) {
+			total.addAndGet(delta);
+			if (day != null) {
+				byDay.computeIfAbsent(day, key -> new AtomicLong()).addAndGet(delta);
+			}
+			addDomain(domain, delta);
+		}
+
+		private void addDomain(String domain, long delta) {
+			byDomain.computeIfAbsent(domain, key -> new AtomicLong()).addAndGet(delta);
+		}
+
+		//Método para sumar las diferencias absolutas con otros contadores
+		private long diff(Aggregates other) {
+			return Math.abs(total.get() - other.total.get()) + diff(byDay, other.byDay) + diff(byDomain, other.byDomain);
+		}
+
+		private static <K> long diff(Map<K, AtomicLong> a, Map<K, AtomicLong> b) {
+			Set<K> keys = new HashSet<K>(a.keySet());
+			keys.addAll(b.keySet());
+			long differences = 0;
+			for (K key : keys) {
+				differences += Math.abs(value(a.get(key)) - value(b.get(key)));
+			}
+			return differences;
+		}
+
+		private static long value(AtomicLong count) {
+			return count == null ? 0 : count.get();
+		}
+	}
+}
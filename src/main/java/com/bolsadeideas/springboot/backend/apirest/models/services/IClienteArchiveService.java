@@ -0,0 +1,7 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+public interface IClienteArchiveService {
+	//Método para mover a clientes_archivo los clientes eliminados hace más del tiempo de retención,
+	//devuelve la cantidad de clientes archivados
+	public int archive();
+}
@@ -0,0 +1,14 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.util.Iterator;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+public interface IClienteBatchService {
+	//Método para crear clientes de forma masiva, se recibe un Iterator para poder procesar la petición mientras se lee
+	public ClienteBatchResult insertAll(Iterator<Cliente> clientes);
+	//Método para actualizar clientes de forma masiva, cada cliente debe indicar su Id
+	public ClienteBatchResult updateAll(Iterator<Cliente> clientes);
+	//Método para eliminar clientes de forma masiva según sus Ids
+	public ClienteBatchResult deleteAll(Iterator<Long> ids);
+}
@@ -0,0 +1,11 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import org.springframework.http.codec.ServerSentEvent;
+
+import reactor.core.publisher.Flux;
+
+public interface IClienteChangeService {
+	//Método para suscribirse a los cambios de clientes como eventos SSE, a partir del evento siguiente a lastEventId
+	//Si lastEventId es null solo se reciben los cambios nuevos; si ya no está en el buffer se envía un evento "reset"
+	public Flux<ServerSentEvent<Object>> subscribe(String lastEventId);
+}
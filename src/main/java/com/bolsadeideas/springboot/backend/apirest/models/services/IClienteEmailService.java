@@ -0,0 +1,12 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+public interface IClienteEmailService {
+	//Método para saber si el email ya pertenece a un cliente distinto del indicado (excludeId puede ser null)
+	//Solo consulta la base de datos cuando el filtro en memoria indica que el email puede existir
+	//Incluye los clientes eliminados que aún no se archivan, ya que su email sigue ocupando el índice único
+	public boolean exists(String email, Long excludeId);
+	//Método para armar el mensaje de un email ya registrado, indicando si pertenece a un cliente eliminado
+	public String conflictMessage(String email);
+	//Método para agregar al filtro un email que se va a guardar
+	public void register(String email);
+}
@@ -0,0 +1,11 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+public interface IClienteIngestService {
+	//Método para encolar un cliente ya validado y devolver su Id de seguimiento
+	//Lanza RejectedExecutionException cuando la cola está llena
+	public String submit(Cliente cliente);
+	//Método para consultar el estado de un cliente encolado, devuelve null si el Id no existe o ya expiró
+	public ClienteIngestStatus findStatus(String trackingId);
+}
@@ -0,0 +1,28 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//Contraparte no bloqueante de IClienteService, se usa en el perfil reactive
+public interface IClienteReactiveService {
+
+	public Flux<Cliente> findAll();
+
+	public Mono<Page<Cliente>> findAll(Pageable pageable);
+
+	//Método para obtener hasta size clientes cuyo Id es mayor al indicado (paginación por keyset)
+	public Flux<Cliente> findAllAfter(Long id, int size);
+
+	public Mono<Cliente> findById(Long id);
+
+	//Método para crear o actualizar un cliente, si la versión no coincide se emite OptimisticLockingFailureException
+	public Mono<Cliente> save(Cliente cliente);
+
+	//Método para eliminar un cliente, si no existe se emite EmptyResultDataAccessException
+	public Mono<Void> delete(Long id);
+}
@@ -1,6 +1,9 @@
 package com.bolsadeideas.springboot.backend.apirest.models.services;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,12 +13,27 @@ import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
 public interface IClienteService {
 	//Método para obtener listado de todos los clientes
 	public List<Cliente> findAll();
+	//Método para recorrer todos los clientes en modo streaming sin mantenerlos en memoria
+	public void exportAll(Consumer<Cliente> consumer);
 	//Método para obtener listado de todos los clientes usando paginación
 	public Page<Cliente> findAll(Pageable pageable);
+	//Método para obtener el siguiente bloque de clientes posteriores a un Id (paginación por keyset)
+	public List<Cliente> findAllAfter(Long id, int size);
+	//Método para buscar clientes cuyo nombre, apellido o email comiencen con el prefijo indicado
+	public ClienteSearchResult search(String prefix, ClienteSearchCursor cursor, int size);
 	//Método para obtener información de un cliente según Id
 	public Cliente findById(Long id);
+	//Método para obtener la versión de un cliente según Id sin cargar la entidad
+	public Long findVersionById(Long id);
 	//Método para crear nuevo cliente
 	public Cliente save(Cliente cliente);
-	//Método para eliminar un cliente según Id
-	public void delete(Long id);
+	//Método para eliminar un cliente según Id (borrado lógico), devuelve la cantidad de filas actualizadas
+	public int delete(Long id);
+	//Método para actualizar solo los campos indicados de un cliente, devuelve la cantidad de filas actualizadas
+	public int patch(Long id, Map<String, Object> fields, Long version);
+	//Métodos para obtener solo los campos indicados de los clientes (?fields=), sin cargar las entidades
+	public void exportAll(Set<String> fields, Consumer<Map<String, Object>> consumer);
+	public Page<Map<String, Object>> findAll(Set<String> fields, Pageable pageable);
+	public List<Map<String, Object>> findAllAfter(Set<String> fields, Long id, int size);
+	public Map<String, Object> findById(Set<String> fields, Long id);
 }
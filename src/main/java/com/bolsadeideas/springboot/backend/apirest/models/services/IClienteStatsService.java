@@ -0,0 +1,23 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Map;
+
+public interface IClienteStatsService {
+	//Método para obtener la cantidad de clientes activos
+	public long count();
+	//Método para obtener la cantidad de clientes creados por día en el rango indicado (from y to pueden ser null)
+	public Map<LocalDate, Long> countByDay(LocalDate from, LocalDate to);
+	//Método para obtener la cantidad de clientes creados por mes (yyyy-MM) en el rango indicado
+	public Map<String, Long> countByMonth(LocalDate from, LocalDate to);
+	//Método para obtener los dominios de email con más clientes, ordenados de mayor a menor
+	public Map<String, Long> countByDomain(int limit);
+	//Métodos para actualizar los contadores cuando se crea, elimina o cambia el email de un cliente,
+	//si hay una transacción activa el cambio se aplica al confirmarse
+	public void created(Date createdAt, String email);
+	public void deleted(Date createdAt, String email);
+	public void emailChanged(String oldEmail, String newEmail);
+	//Método para volver a calcular los contadores desde la base de datos y corregir las diferencias
+	public void reconcile();
+}
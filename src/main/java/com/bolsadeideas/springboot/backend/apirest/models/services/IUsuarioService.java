@@ -0,0 +1,8 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Usuario;
+
+public interface IUsuarioService {
+	//Método para obtener un usuario con sus roles según el nombre de usuario
+	public Usuario findByUsername(String username);
+}
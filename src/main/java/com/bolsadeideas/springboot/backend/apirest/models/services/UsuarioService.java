@@ -0,0 +1,66 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bolsadeideas.springboot.backend.apirest.models.dao.IUsuarioDao;
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Usuario;
+
+//Con la anotación Service se indica a Spring que es una clase de servicio
+//Implementa UserDetailsService para que Spring Security obtenga el usuario al iniciar sesión
+//El servicio usa JPA, por lo que no se registra cuando está activo el perfil reactive
+@Profile("!reactive")
+@Service
+public class UsuarioService implements IUsuarioService, UserDetailsService {
+
+	private Logger logger = LoggerFactory.getLogger(UsuarioService.class);
+
+	//Se usa Autowired para inyección de dependencias
+	@Autowired
+	private IUsuarioDao usuarioDao;
+
+	@Override
+	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
+	@Transactional(readOnly = true)
+	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+		//Se llama al dao para obtener el usuario con sus roles (desde la caché si ya fue consultado)
+		Usuario usuario = usuarioDao.findByUsername(username);
+
+		//Validar si no se encontró el usuario especificado
+		if (usuario == null) {
+			logger.error("Error en el login: no existe el usuario '" + username + "' en el sistema");
+			throw new UsernameNotFoundException("Error en el login: no existe el usuario '" + username + "' en el sistema");
+		}
+
+		//Convertir los roles del usuario en el listado de permisos que maneja Spring Security
+		List<GrantedAuthority> authorities = usuario.getRoles()
+				.stream()
+				.map(role -> new SimpleGrantedAuthority(role.getNombre()))
+				.collect(Collectors.toList());
+
+		//Se crea un nuevo User en cada llamada, ya que Spring Security borra la contraseña del objeto
+		//después de autenticar y el Usuario cacheado no debe modificarse
+		return new User(usuario.getUsername(), usuario.getPassword(), usuario.getEnabled(), true, true, true, authorities);
+	}
+
+	@Override
+	//Con la anotación se indica transaccionalidad y con readOnly = true se indica que es una consulta
+	@Transactional(readOnly = true)
+	public Usuario findByUsername(String username) {
+		//Se llama al dao para obtener el usuario con sus roles
+		return usuarioDao.findByUsername(username);
+	}
+}
@@ -0,0 +1,40 @@
+/* Tablas de clientes, usuarios y roles, equivalentes al esquema que genera Hibernate a partir de las entidades */
+CREATE TABLE clientes (
+	id BIGINT NOT NULL AUTO_INCREMENT,
+	nombre VARCHAR(12) NOT NULL,
+	apellido VARCHAR(255),
+	email VARCHAR(255) NOT NULL,
+	create_at DATE,
+	updated_at DATETIME(6),
+	version BIGINT,
+	PRIMARY KEY (id),
+	CONSTRAINT uk_clientes_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+/* Índices para las búsquedas por prefijo con paginación por keyset */
+CREATE INDEX idx_clientes_nombre ON clientes (nombre, id);
+CREATE INDEX idx_clientes_apellido ON clientes (apellido, id);
+
+CREATE TABLE usuarios (
+	id BIGINT NOT NULL AUTO_INCREMENT,
+	username VARCHAR(20),
+	password VARCHAR(60),
+	enabled BIT,
+	PRIMARY KEY (id),
+	CONSTRAINT uk_usuarios_username UNIQUE (username)
+) ENGINE=InnoDB;
+
+CREATE TABLE roles (
+	id BIGINT NOT NULL AUTO_INCREMENT,
+	nombre VARCHAR(20),
+	PRIMARY KEY (id),
+	CONSTRAINT uk_roles_nombre UNIQUE (nombre)
+) ENGINE=InnoDB;
+
+CREATE TABLE usuarios_roles (
+	usuario_id BIGINT NOT NULL,
+	role_id BIGINT NOT NULL,
+	CONSTRAINT uk_usuarios_roles UNIQUE (usuario_id, role_id),
+	CONSTRAINT fk_usuarios_roles_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id),
+	CONSTRAINT fk_usuarios_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+) ENGINE=InnoDB;
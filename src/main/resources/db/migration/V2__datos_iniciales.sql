@@ -0,0 +1,4 @@
+/* Roles que asigna la aplicación a los usuarios */
+/* Los clientes y usuarios de ejemplo están en db/seed/afterMigrate.sql, que solo se usa en desarrollo y pruebas */
+INSERT INTO roles (nombre) VALUES ('ROLE_USER');
+INSERT INTO roles (nombre) VALUES ('ROLE_ADMIN');
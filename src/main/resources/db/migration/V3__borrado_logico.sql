@@ -0,0 +1,18 @@
+/* Borrado lógico de clientes y tabla de archivo para los clientes eliminados */
+ALTER TABLE clientes ADD COLUMN deleted_at DATETIME(6);
+CREATE INDEX idx_clientes_deleted_at ON clientes (deleted_at);
+
+/* El email de un cliente eliminado sigue ocupando el índice único de clientes hasta que se archiva */
+/* Sin restricción única en el email del archivo: un email archivado puede volver a registrarse y archivarse otra vez */
+CREATE TABLE clientes_archivo (
+	id BIGINT NOT NULL,
+	nombre VARCHAR(12) NOT NULL,
+	apellido VARCHAR(255),
+	email VARCHAR(255) NOT NULL,
+	create_at DATE,
+	updated_at DATETIME(6),
+	deleted_at DATETIME(6),
+	archived_at DATETIME(6),
+	version BIGINT,
+	PRIMARY KEY (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,4 @@
+/* Los emails se guardan normalizados (sin espacios y en minúsculas) para validar duplicados por igualdad con el índice único */
+/* Con la collation por defecto de MySQL el índice único ya impide emails que solo difieren en mayúsculas */
+UPDATE clientes SET email = LOWER(TRIM(email));
+UPDATE clientes_archivo SET email = LOWER(TRIM(email));
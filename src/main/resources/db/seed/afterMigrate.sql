@@ -0,0 +1,25 @@
+/* Datos de ejemplo para desarrollo y pruebas: clientes de import.sql y los usuarios andres y admin (contraseña 12345) */
+/* Flyway ejecuta este callback después de cada migración solo cuando db/seed está en spring.flyway.locations, */
+/* por eso cada fila se inserta solo si todavía no existe */
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Andrés', 'Guzmán', 'profesor@bolsadeideas.com', '2018-01-01', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'profesor@bolsadeideas.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Mr. John', 'Doe', 'john.doe@gmail.com', '2018-01-02', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'john.doe@gmail.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Linus', 'Torvalds', 'linus.torvalds@gmail.com', '2018-01-03', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'linus.torvalds@gmail.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Rasmus', 'Lerdorf', 'rasmus.lerdorf@gmail.com', '2018-01-04', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'rasmus.lerdorf@gmail.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Erich', 'Gamma', 'erich.gamma@gmail.com', '2018-02-01', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'erich.gamma@gmail.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Richard', 'Helm', 'richard.helm@gmail.com', '2018-02-10', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'richard.helm@gmail.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Ralph', 'Johnson', 'ralph.johnson@gmail.com', '2018-02-18', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'ralph.johnson@gmail.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'John', 'Vlissides', 'john.vlissides@gmail.com', '2018-02-28', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'john.vlissides@gmail.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Dr. James', 'Gosling', 'james.gosling@gmail.com', '2018-03-03', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'james.gosling@gmail.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Magma', 'Lee', 'magma.lee@gmail.com', '2018-03-04', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'magma.lee@gmail.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Tornado', 'Roe', 'tornado.roe@gmail.com', '2018-03-05', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'tornado.roe@gmail.com');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) SELECT 'Jade', 'Doe', 'jane.doe@gmail.com', '2018-03-06', 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM clientes WHERE email = 'jane.doe@gmail.com');
+
+INSERT INTO usuarios (username, password, enabled) SELECT 'andres', '$2a$10$5Wr3nDnCuNAChnnmPAyFnexwFsmn3Fx97FkrpOKcm5yrkcsy94thi', 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE username = 'andres');
+INSERT INTO usuarios (username, password, enabled) SELECT 'admin', '$2a$10$5Wr3nDnCuNAChnnmPAyFnexwFsmn3Fx97FkrpOKcm5yrkcsy94thi', 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE username = 'admin');
+
+INSERT INTO usuarios_roles (usuario_id, role_id) SELECT u.id, r.id FROM usuarios u, roles r WHERE u.username = 'andres' AND r.nombre = 'ROLE_USER'
+	AND NOT EXISTS (SELECT 1 FROM usuarios_roles ur WHERE ur.usuario_id = u.id AND ur.role_id = r.id);
+INSERT INTO usuarios_roles (usuario_id, role_id) SELECT u.id, r.id FROM usuarios u, roles r WHERE u.username = 'admin' AND r.nombre = 'ROLE_ADMIN'
+	AND NOT EXISTS (SELECT 1 FROM usuarios_roles ur WHERE ur.usuario_id = u.id AND ur.role_id = r.id);
+INSERT INTO usuarios_roles (usuario_id, role_id) SELECT u.id, r.id FROM usuarios u, roles r WHERE u.username = 'admin' AND r.nombre = 'ROLE_USER'
+	AND NOT EXISTS (SELECT 1 FROM usuarios_roles ur WHERE ur.usuario_id = u.id AND ur.role_id = r.id);
@@ -1,13 +1,25 @@
 /* Populate tabla clientes */
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Andrés', 'Guzmán', 'profesor@bolsadeideas.com', '2018-01-01');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Mr. John', 'Doe', 'john.doe@gmail.com', '2018-01-02');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Linus', 'Torvalds', 'linus.torvalds@gmail.com', '2018-01-03');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Rasmus', 'Lerdorf', 'rasmus.lerdorf@gmail.com', '2018-01-04');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Erich', 'Gamma', 'erich.gamma@gmail.com', '2018-02-01');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Richard', 'Helm', 'richard.helm@gmail.com', '2018-02-10');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Ralph', 'Johnson', 'ralph.johnson@gmail.com', '2018-02-18');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('John', 'Vlissides', 'john.vlissides@gmail.com', '2018-02-28');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Dr. James', 'Gosling', 'james.gosling@gmail.com', '2018-03-03');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Magma', 'Lee', 'magma.lee@gmail.com', '2018-03-04');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Tornado', 'Roe', 'tornado.roe@gmail.com', '2018-03-05');
-INSERT INTO clientes (nombre, apellido, email, create_at) VALUES('Jade', 'Doe', 'jane.doe@gmail.com', '2018-03-06');
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Andrés', 'Guzmán', 'profesor@bolsadeideas.com', '2018-01-01', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Mr. John', 'Doe', 'john.doe@gmail.com', '2018-01-02', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Linus', 'Torvalds', 'linus.torvalds@gmail.com', '2018-01-03', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Rasmus', 'Lerdorf', 'rasmus.lerdorf@gmail.com', '2018-01-04', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Erich', 'Gamma', 'erich.gamma@gmail.com', '2018-02-01', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Richard', 'Helm', 'richard.helm@gmail.com', '2018-02-10', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Ralph', 'Johnson', 'ralph.johnson@gmail.com', '2018-02-18', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('John', 'Vlissides', 'john.vlissides@gmail.com', '2018-02-28', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Dr. James', 'Gosling', 'james.gosling@gmail.com', '2018-03-03', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Magma', 'Lee', 'magma.lee@gmail.com', '2018-03-04', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Tornado', 'Roe', 'tornado.roe@gmail.com', '2018-03-05', 0);
+INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES('Jade', 'Doe', 'jane.doe@gmail.com', '2018-03-06', 0);
+
+
+/* Creamos algunos usuarios con sus roles */
+INSERT INTO usuarios (username, password, enabled) VALUES ('andres', '$2a$10$5Wr3nDnCuNAChnnmPAyFnexwFsmn3Fx97FkrpOKcm5yrkcsy94thi', 1);
+INSERT INTO usuarios (username, password, enabled) VALUES ('admin', '$2a$10$5Wr3nDnCuNAChnnmPAyFnexwFsmn3Fx97FkrpOKcm5yrkcsy94thi', 1);
+
+INSERT INTO roles (nombre) VALUES ('ROLE_USER');
+INSERT INTO roles (nombre) VALUES ('ROLE_ADMIN');
+
+INSERT INTO usuarios_roles (usuario_id, role_id) VALUES (1, 1);
+INSERT INTO usuarios_roles (usuario_id, role_id) VALUES (2, 2);
+INSERT INTO usuarios_roles (usuario_id, role_id) VALUES (2, 1);
\ No newline at end of file
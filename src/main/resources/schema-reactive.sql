@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS clientes (
+	id BIGINT NOT NULL AUTO_INCREMENT,
+	nombre VARCHAR(255) NOT NULL,
+	apellido VARCHAR(255),
+	email VARCHAR(255) NOT NULL,
+	create_at DATE,
+	updated_at DATETIME,
+	version BIGINT,
+	deleted_at DATETIME,
+	PRIMARY KEY (id),
+	CONSTRAINT uk_clientes_email UNIQUE (email)
+);
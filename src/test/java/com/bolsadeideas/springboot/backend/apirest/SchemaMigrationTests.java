@@ -0,0 +1,59 @@
+package com.bolsadeideas.springboot.backend.apirest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.bolsadeideas.springboot.backend.apirest.models.dao.IClienteDao;
+
+//Verifica que las migraciones de db/migration generen el esquema que esperan las entidades,
+//con la misma configuración de arranque del perfil prod más los datos de ejemplo del perfil dev
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:db_migraciones;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.flyway.enabled=true",
+		"spring.flyway.locations=classpath:db/migration,classpath:db/seed",
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.main.lazy-initialization=true",
+		"spring.data.jpa.repositories.bootstrap-mode=deferred"})
+class SchemaMigrationTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private IClienteDao clienteDao;
+
+	@Test
+	void migrationsMatchEntities() {
+		assertEquals(12, clienteDao.count());
+		assertEquals(2, jdbcTemplate.queryForObject("select count(*) from usuarios", Integer.class));
+		assertEquals(3, jdbcTemplate.queryForObject("select count(*) from usuarios_roles", Integer.class));
+	}
+
+	//Sin db/seed, como en el perfil prod, no se crean clientes ni usuarios
+	@Test
+	void migrationsDoNotInsertSampleData() {
+		String url = "jdbc:h2:mem:db_migraciones_sin_datos;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+		Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration").load().migrate();
+
+		JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+		assertEquals(0, jdbc.queryForObject("select count(*) from clientes", Integer.class));
+		assertEquals(0, jdbc.queryForObject("select count(*) from usuarios", Integer.class));
+		assertEquals(2, jdbc.queryForObject("select count(*) from roles", Integer.class));
+	}
+
+	//El callback se ejecuta en cada arranque, por lo que no debe duplicar los datos de ejemplo
+	@Test
+	void sampleDataIsInsertedOnce() {
+		Flyway.configure().dataSource(jdbcTemplate.getDataSource()).locations("classpath:db/migration", "classpath:db/seed").load().migrate();
+
+		assertEquals(12, jdbcTemplate.queryForObject("select count(*) from clientes", Integer.class));
+		assertEquals(2, jdbcTemplate.queryForObject("select count(*) from usuarios", Integer.class));
+		assertEquals(3, jdbcTemplate.queryForObject("select count(*) from usuarios_roles", Integer.class));
+	}
+}
@@ -0,0 +1,68 @@
+package com.bolsadeideas.springboot.backend.apirest.auth;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//Pruebas de los endpoints que no usan la cabecera Authorization: el scrape de Prometheus y el stream de cambios
+//que abre el EventSource del navegador con el token en el parámetro access_token
+//Se habilita el registro de Prometheus, que las pruebas deshabilitan por defecto
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class ResourceServerConfigTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private String token;
+
+	//Se obtiene un token del servidor de autorización con las credenciales de import.sql
+	@BeforeEach
+	void setUp() throws Exception {
+		String body = mockMvc.perform(post("/oauth/token")
+				.header("Authorization", "Basic " + Base64.getEncoder().encodeToString("angularapp:12345".getBytes(StandardCharsets.UTF_8)))
+				.param("grant_type", "password")
+				.param("username", "admin")
+				.param("password", "12345"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		token = new ObjectMapper().readTree(body).get("access_token").asText();
+	}
+
+	@Test
+	void prometheusDoesNotRequireToken() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void changesAcceptTokenAsParameter() throws Exception {
+		mockMvc.perform(get("/api/clientes/changes"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/clientes/changes").param("access_token", token))
+				.andExpect(request().asyncStarted());
+	}
+
+	@Test
+	void otherEndpointsIgnoreTokenParameter() throws Exception {
+		mockMvc.perform(get("/api/clientes/1").param("access_token", token))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/clientes/1").header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk());
+	}
+}
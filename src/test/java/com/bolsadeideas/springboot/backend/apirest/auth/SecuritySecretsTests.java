@@ -0,0 +1,24 @@
+package com.bolsadeideas.springboot.backend.apirest.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+//Pruebas de la validación de secretos: sin valor o con una llave de menos de 32 bytes la aplicación no debe iniciar
+class SecuritySecretsTests {
+
+	@Test
+	void rejectsMissingOrShortSigningKey() {
+		assertThrows(IllegalStateException.class, () -> SecuritySecrets.requireSigningKey(null));
+		assertThrows(IllegalStateException.class, () -> SecuritySecrets.requireSigningKey(" "));
+		assertThrows(IllegalStateException.class, () -> SecuritySecrets.requireSigningKey("0123456789012345678901234567890"));
+		assertEquals("01234567890123456789012345678901", SecuritySecrets.requireSigningKey("01234567890123456789012345678901"));
+	}
+
+	@Test
+	void rejectsMissingClientSecret() {
+		assertThrows(IllegalStateException.class, () -> SecuritySecrets.requireClientSecret(""));
+		assertEquals("secreto", SecuritySecrets.requireClientSecret("secreto"));
+	}
+}
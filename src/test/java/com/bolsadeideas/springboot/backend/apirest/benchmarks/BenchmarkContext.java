@@ -0,0 +1,49 @@
+package com.bolsadeideas.springboot.backend.apirest.benchmarks;
+
+import java.util.stream.IntStream;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bolsadeideas.springboot.backend.apirest.SpringBootBackendApirestApplication;
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteBatchService;
+
+//Clase de apoyo para levantar la aplicación en los benchmarks contra la base de datos H2 embebida
+//definida en src/test/resources/config/application.properties
+final class BenchmarkContext {
+
+	//Cantidad de clientes con los que se pobla la base de datos antes de medir
+	static final int ROWS = 10_000;
+
+	private BenchmarkContext() {
+	}
+
+	//Método para levantar la aplicación con el tipo de aplicación web indicado y poblar la tabla clientes
+	static ConfigurableApplicationContext start(WebApplicationType webApplicationType) {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootBackendApirestApplication.class)
+				.web(webApplicationType)
+				//Se deshabilita el límite de peticiones, ya que todas las peticiones del benchmark vienen del mismo consumidor
+				.properties("server.port=0", "spring.main.banner-mode=off", "app.rate-limit.enabled=false",
+						"logging.level.root=warn", "logging.level.org.hibernate.SQL=warn")
+				.run();
+		seed(context);
+		return context;
+	}
+
+	//Método para crear los clientes de prueba usando la inserción masiva
+	private static void seed(ConfigurableApplicationContext context) {
+		IClienteBatchService clienteBatchService = context.getBean(IClienteBatchService.class);
+		clienteBatchService.insertAll(IntStream.range(0, ROWS).mapToObj(BenchmarkContext::cliente).iterator());
+	}
+
+	//Método para crear un cliente válido con un correo único según el número indicado
+	static Cliente cliente(long n) {
+		Cliente cliente = new Cliente();
+		cliente.setNombre("Nombre" + (n % 1000));
+		cliente.setApellido("Apellido" + n);
+		cliente.setEmail("cliente" + n + "@bench.com");
+		return cliente;
+	}
+}
@@ -0,0 +1,60 @@
+package com.bolsadeideas.springboot.backend.apirest.benchmarks;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+//Benchmark del camino completo de una petición en ClienteRestController usando MockMvc
+//(DispatcherServlet, controlador, service, dao y serialización), sin los filtros de seguridad
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClienteRestControllerBenchmark {
+
+	private ConfigurableApplicationContext context;
+	private MockMvc mockMvc;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkContext.start(WebApplicationType.SERVLET);
+		mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public MvcResult show() throws Exception {
+		return mockMvc.perform(get("/api/clientes/{id}", ThreadLocalRandom.current().nextLong(1, BenchmarkContext.ROWS))).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult indexPage() throws Exception {
+		return mockMvc.perform(get("/api/clientes/page/{page}", ThreadLocalRandom.current().nextInt(BenchmarkContext.ROWS / 4))).andReturn();
+	}
+}
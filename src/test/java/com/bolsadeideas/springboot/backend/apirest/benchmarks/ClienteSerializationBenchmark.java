@@ -0,0 +1,94 @@
+package com.bolsadeideas.springboot.backend.apirest.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.bolsadeideas.springboot.backend.apirest.models.dto.PageResponse;
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+//Benchmark de la serialización con Jackson de Cliente y de una página de clientes
+//Los métodos serializeCliente y serializePage miden la configuración por defecto (Page completo, acceso por reflexión),
+//los demás la configuración de JacksonConfig (Blackbird) con la página reducida en JSON y en Smile
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClienteSerializationBenchmark {
+
+	private ObjectMapper objectMapper;
+	private ObjectMapper blackbirdMapper;
+	private ObjectMapper smileMapper;
+	private Cliente cliente;
+	private Page<Cliente> page;
+	private PageResponse<Cliente> slimPage;
+
+	@Setup
+	public void setup() {
+		//Se construye el ObjectMapper con la misma configuración por defecto que usa Spring Boot
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		blackbirdMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+		smileMapper = Jackson2ObjectMapperBuilder.smile().modulesToInstall(new BlackbirdModule()).build();
+		cliente = cliente(1);
+
+		List<Cliente> clientes = new ArrayList<Cliente>();
+		for (long i = 1; i <= 4; i++) {
+			clientes.add(cliente(i));
+		}
+		page = new PageImpl<Cliente>(clientes, PageRequest.of(0, 4), BenchmarkContext.ROWS);
+		slimPage = new PageResponse<Cliente>(page);
+	}
+
+	@Benchmark
+	public byte[] serializeCliente() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(cliente);
+	}
+
+	@Benchmark
+	public byte[] serializePage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] serializeClienteBlackbird() throws JsonProcessingException {
+		return blackbirdMapper.writeValueAsBytes(cliente);
+	}
+
+	@Benchmark
+	public byte[] serializeSlimPage() throws JsonProcessingException {
+		return blackbirdMapper.writeValueAsBytes(slimPage);
+	}
+
+	@Benchmark
+	public byte[] serializeSlimPageSmile() throws JsonProcessingException {
+		return smileMapper.writeValueAsBytes(slimPage);
+	}
+
+	private static Cliente cliente(long id) {
+		Cliente cliente = BenchmarkContext.cliente(id);
+		cliente.setId(id);
+		cliente.setCreatedAt(new Date());
+		return cliente;
+	}
+}
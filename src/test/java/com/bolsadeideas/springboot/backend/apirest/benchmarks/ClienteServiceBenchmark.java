@@ -0,0 +1,82 @@
+package com.bolsadeideas.springboot.backend.apirest.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.bolsadeideas.springboot.backend.apirest.models.dao.IClienteDao;
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteService;
+
+//Benchmark de los métodos de ClienteServiceImpl contra la base de datos H2 embebida
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClienteServiceBenchmark {
+
+	private ConfigurableApplicationContext context;
+	private IClienteService clienteService;
+	private IClienteDao clienteDao;
+	//Secuencia para generar correos únicos al crear clientes
+	private final AtomicLong sequence = new AtomicLong(BenchmarkContext.ROWS);
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkContext.start(WebApplicationType.NONE);
+		clienteService = context.getBean(IClienteService.class);
+		clienteDao = context.getBean(IClienteDao.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	//Consulta por Id a través del service (incluye la caché de clientes)
+	@Benchmark
+	public Cliente findById() {
+		return clienteService.findById(randomId());
+	}
+
+	//Consulta por Id directamente al dao, sirve como referencia del costo sin caché
+	@Benchmark
+	public Cliente findByIdDao() {
+		return clienteDao.findById(randomId()).orElse(null);
+	}
+
+	//Consulta paginada a través del service con el mismo tamaño de página del controlador
+	@Benchmark
+	public Page<Cliente> findAllPageable() {
+		return clienteService.findAll(PageRequest.of(ThreadLocalRandom.current().nextInt(BenchmarkContext.ROWS / 4), 4));
+	}
+
+	//Creación de un cliente nuevo a través del service
+	@Benchmark
+	public Cliente save() {
+		return clienteService.save(BenchmarkContext.cliente(sequence.incrementAndGet()));
+	}
+
+	private long randomId() {
+		return ThreadLocalRandom.current().nextLong(1, BenchmarkContext.ROWS);
+	}
+}
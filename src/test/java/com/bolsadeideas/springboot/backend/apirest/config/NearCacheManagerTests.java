@@ -0,0 +1,83 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//Pruebas de la coherencia de las cachés locales entre dos instancias simuladas que comparten el bus en memoria
+class NearCacheManagerTests {
+
+	private final LocalCacheInvalidationBus bus = new LocalCacheInvalidationBus();
+	private final NearCacheManager nodeA = node();
+	private final NearCacheManager nodeB = node();
+
+	@Test
+	void invalidationEvictsOlderVersionsOnOtherNodes() {
+		nodeA.getCache("clientes").put(1L, cliente(1L, 0L));
+		nodeB.getCache("clientes").put(1L, cliente(1L, 0L));
+		nodeB.getCache("clientes").put(2L, cliente(2L, 0L));
+
+		//La instancia A guarda la versión 1 y publica la invalidación
+		nodeA.getCache("clientes").put(1L, cliente(1L, 1L));
+		nodeA.invalidate("clientes", 1L, 1L);
+
+		assertEquals(1L, nodeA.getCache("clientes").get(1L, Cliente.class).getVersion());
+		assertNull(nodeB.getCache("clientes").get(1L));
+		assertEquals(0L, nodeB.getCache("clientes").get(2L, Cliente.class).getVersion());
+
+		//Una lectura de B iniciada antes de la modificación no puede guardar la versión anterior
+		nodeB.getCache("clientes").put(1L, cliente(1L, 0L));
+		assertNull(nodeB.getCache("clientes").get(1L));
+		nodeB.getCache("clientes").put(1L, cliente(1L, 1L));
+		assertEquals(1L, nodeB.getCache("clientes").get(1L, Cliente.class).getVersion());
+
+		//Sin versión (eliminación) se invalida cualquier versión hasta que expire el tombstone
+		nodeB.invalidate("clientes", 2L, null);
+		nodeA.getCache("clientes").put(2L, cliente(2L, 5L));
+		assertNull(nodeA.getCache("clientes").get(2L));
+	}
+
+	@Test
+	void invalidateAllClearsAndBlocksPagesOnOtherNodes() {
+		nodeB.getCache("clientesPage").put("page-0", "contenido");
+		nodeA.invalidateAll("clientesPage");
+
+		assertNull(nodeB.getCache("clientesPage").get("page-0"));
+		nodeB.getCache("clientesPage").put("page-0", "contenido anterior");
+		assertNull(nodeB.getCache("clientesPage").get("page-0"));
+	}
+
+	@Test
+	void messageKeysSurviveJsonRoundTrip() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		nodeB.getCache("clientes").put(3L, cliente(3L, 0L));
+
+		//Como en Redis, el mensaje llega serializado y la clave numérica se recibe como Integer
+		CacheInvalidationMessage message = objectMapper.readValue(
+				objectMapper.writeValueAsString(new CacheInvalidationMessage("otra-instancia", "clientes", 3L, 1L)),
+				CacheInvalidationMessage.class);
+		bus.publish(message);
+
+		assertNull(nodeB.getCache("clientes").get(3L));
+	}
+
+	private NearCacheManager node() {
+		CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager("clientes", "clientesPage");
+		return new NearCacheManager(caffeineCacheManager, bus, Duration.ofMinutes(1),
+				value -> value instanceof Cliente ? ((Cliente) value).getVersion() : null);
+	}
+
+	private Cliente cliente(Long id, Long version) {
+		Cliente cliente = new Cliente();
+		cliente.setId(id);
+		cliente.setVersion(version);
+		return cliente;
+	}
+}
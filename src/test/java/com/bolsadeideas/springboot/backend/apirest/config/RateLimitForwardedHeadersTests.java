@@ -0,0 +1,46 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+//Pruebas de la identificación por IP de las peticiones anónimas detrás de un proxy: las peticiones llegan desde
+//127.0.0.1, que es un proxy de confianza, y el límite se aplica a la IP que este agrega en X-Forwarded-For
+//Cada consulta de página consume 2 tokens, por lo que cada IP puede hacer 2 consultas
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"app.rate-limit.capacity=4",
+		"app.rate-limit.refill-per-second=0.001" })
+class RateLimitForwardedHeadersTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void trustedProxyForwardsClientAddress() {
+		assertEquals(HttpStatus.OK, get("203.0.113.1"));
+		assertEquals(HttpStatus.OK, get("203.0.113.1"));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, get("203.0.113.1"));
+		assertEquals(HttpStatus.OK, get("203.0.113.2"));
+	}
+
+	//Las entradas que agrega el cliente antes de la del proxy no cambian el consumidor
+	@Test
+	void spoofedEntriesDoNotChangeConsumer() {
+		assertEquals(HttpStatus.OK, get("192.0.2.1, 198.51.100.7"));
+		assertEquals(HttpStatus.OK, get("192.0.2.2, 198.51.100.7"));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, get("192.0.2.3, 198.51.100.7"));
+	}
+
+	private HttpStatus get(String forwardedFor) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("X-Forwarded-For", forwardedFor);
+		return restTemplate.exchange("/api/clientes/page/0", HttpMethod.GET, new HttpEntity<Void>(headers), String.class).getStatusCode();
+	}
+}
@@ -0,0 +1,66 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteService;
+
+//Prueba del enrutamiento a través de JPA con el EntityManager abierto durante toda la petición (open-in-view):
+//la escritura posterior a una lectura de la misma petición debe ir a la primaria y no reutilizar la conexión de la réplica
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:db_primaria_osiv;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"app.datasource.replicas.enabled=true",
+		"app.datasource.replicas.urls=" + ReadWriteOpenInViewTests.REPLICA_URL,
+		"app.datasource.replicas.username=sa",
+		"app.datasource.replicas.password="
+})
+class ReadWriteOpenInViewTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:db_replica_osiv;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+	//La réplica se crea con las migraciones antes de iniciar la aplicación, ya que las lecturas del arranque la consultan
+	static {
+		Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration", "classpath:db/seed").load().migrate();
+	}
+
+	@Autowired
+	private IClienteService clienteService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ReadWriteRoutingDataSource routingDataSource;
+
+	@Test
+	void writeAfterReadInSameRequestGoesToPrimary() {
+		JdbcTemplate primary = new JdbcTemplate(routingDataSource);
+		JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+		//Igual que OpenEntityManagerInViewInterceptor, el EntityManager queda asociado a toda la petición
+		TransactionSynchronizationManager.bindResource(entityManagerFactory,
+				new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+		try {
+			Cliente cliente = clienteService.findById(1L);
+			cliente.setNombre("Nuevo");
+			clienteService.save(cliente);
+		} finally {
+			EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			holder.getEntityManager().close();
+		}
+
+		assertEquals("Nuevo", primary.queryForObject("SELECT nombre FROM clientes WHERE id = 1", String.class));
+		assertEquals("Andrés", replica.queryForObject("SELECT nombre FROM clientes WHERE id = 1", String.class));
+	}
+}
@@ -0,0 +1,125 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+//Pruebas del enrutamiento de lecturas y escrituras con bases de datos H2 embebidas que identifican su nombre
+class ReadWriteRoutingDataSourceTests {
+
+	private final List<HikariDataSource> pools = new ArrayList<HikariDataSource>();
+	private ReadWriteRoutingDataSource routing;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate readOnly;
+	private TransactionTemplate readWrite;
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		routing.close();
+		pools.forEach(HikariDataSource::close);
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplicasInTurn() {
+		setUp(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ZERO, database("replica1"), database("replica2"));
+
+		assertEquals(Arrays.asList("replica1", "replica2", "replica1"),
+				Arrays.asList(readOnly(), readOnly(), readOnly()));
+		assertEquals("primary", readWrite());
+		//Fuera de una transacción se usa la primaria
+		assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+	}
+
+	@Test
+	void leastConnectionsChoosesIdleReplica() {
+		setUp(ReadWriteRoutingDataSource.Strategy.LEAST_CONNECTIONS, Duration.ZERO, database("replica1"), database("replica2"));
+
+		//Mientras la primera réplica tiene una conexión activa la siguiente lectura va a la segunda
+		TransactionTemplate requiresNew = new TransactionTemplate(readOnly.getTransactionManager());
+		requiresNew.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+		requiresNew.setReadOnly(true);
+		String nested = readOnly.execute(status -> {
+			jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+			return requiresNew.execute(inner -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+		});
+		assertEquals("replica2", nested);
+	}
+
+	@Test
+	void unavailableReplicaIsEjected() {
+		HikariDataSource down = pool("jdbc:h2:tcp://localhost:1/down");
+		setUp(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ZERO, down, database("replica1"));
+
+		//La réplica caída se retira y la lectura se atiende en la primaria, luego solo se usa la réplica disponible
+		assertEquals("primary", readOnly());
+		assertEquals(Arrays.asList("replica1", "replica1"), Arrays.asList(readOnly(), readOnly()));
+	}
+
+	@Test
+	void writerReadsFromPrimaryDuringWindow() {
+		setUp(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ofMinutes(1), database("replica1"));
+
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("andres", null));
+		assertEquals("replica1", readOnly());
+		readWrite();
+		assertEquals("primary", readOnly());
+
+		//Otros usuarios siguen leyendo de la réplica
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", null));
+		assertEquals("replica1", readOnly());
+	}
+
+	private void setUp(ReadWriteRoutingDataSource.Strategy strategy, Duration window, HikariDataSource... replicas) {
+		routing = new ReadWriteRoutingDataSource(database("primary"), Arrays.asList(replicas), strategy, Duration.ofMinutes(1), window);
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+	}
+
+	private String readOnly() {
+		return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+	}
+
+	private String readWrite() {
+		return readWrite.execute(status -> {
+			jdbcTemplate.update("UPDATE node SET name = name");
+			return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+		});
+	}
+
+	//Crea una base de datos embebida con una tabla que devuelve su nombre
+	private HikariDataSource database(String name) {
+		HikariDataSource dataSource = pool("jdbc:h2:mem:rw_" + name + "_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		new JdbcTemplate(dataSource).execute("CREATE TABLE node (name VARCHAR(20))");
+		new JdbcTemplate(dataSource).update("INSERT INTO node VALUES (?)", name);
+		return dataSource;
+	}
+
+	private HikariDataSource pool(String url) {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl(url);
+		dataSource.setUsername("sa");
+		dataSource.setConnectionTimeout(250);
+		dataSource.setInitializationFailTimeout(-1);
+		pools.add(dataSource);
+		return dataSource;
+	}
+}
@@ -0,0 +1,57 @@
+package com.bolsadeideas.springboot.backend.apirest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+//Pruebas del token bucket: ráfaga hasta la capacidad, costo por endpoint y consumo concurrente sin exceder la capacidad
+class TokenBucketRateLimiterTests {
+
+	@Test
+	void allowsBurstUpToCapacityPerKey() {
+		//Con una tasa de reposición muy baja el bucket no se recupera durante la prueba
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 0.001, Duration.ofMinutes(1));
+
+		assertEquals(0, limiter.tryConsume("ip:1", 8));
+		assertEquals(0, limiter.tryConsume("ip:1", 2));
+		assertTrue(limiter.tryConsume("ip:1", 1) > 0);
+		//Cada consumidor tiene su propio bucket
+		assertEquals(0, limiter.tryConsume("ip:2", 10));
+	}
+
+	@Test
+	void reportsTimeUntilTokensAreAvailable() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1, Duration.ofMinutes(1));
+
+		assertEquals(0, limiter.tryConsume("user:andres", 5));
+		long wait = limiter.tryConsume("user:andres", 3);
+		//Se deben reponer 3 tokens a razón de 1 por segundo
+		assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(2900) && wait <= TimeUnit.SECONDS.toNanos(3), "Espera: " + wait);
+	}
+
+	@Test
+	void concurrentConsumersNeverExceedCapacity() throws InterruptedException {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1000, 0.001, Duration.ofMinutes(1));
+		AtomicInteger granted = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 8; i++) {
+			executor.execute(() -> {
+				for (int j = 0; j < 500; j++) {
+					if (limiter.tryConsume("ip:1", 1) == 0) {
+						granted.incrementAndGet();
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(1000, granted.get());
+	}
+}
@@ -0,0 +1,75 @@
+package com.bolsadeideas.springboot.backend.apirest.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//Pruebas de las operaciones masivas cuando el body no se puede leer completo
+@SpringBootTest
+@AutoConfigureMockMvc
+class ClienteBatchRestControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private String token;
+
+	//Se obtiene un token del servidor de autorización con las credenciales de import.sql
+	@BeforeEach
+	void setUp() throws Exception {
+		String body = mockMvc.perform(post("/oauth/token")
+				.header("Authorization", "Basic " + Base64.getEncoder().encodeToString("angularapp:12345".getBytes(StandardCharsets.UTF_8)))
+				.param("grant_type", "password")
+				.param("username", "admin")
+				.param("password", "12345"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		token = new ObjectMapper().readTree(body).get("access_token").asText();
+	}
+
+	@Test
+	void malformedElementReportsCommittedCount() throws Exception {
+		String body = "{\"nombre\":\"Barbara\",\"apellido\":\"Liskov\",\"email\":\"barbara.liskov@gmail.com\"}\n"
+				+ "{\"nombre\":\"Edsger\",\"apellido\":\"Dijkstra\",\"email\":\"edsger.dijkstra@gmail.com\"}\n"
+				+ "{\"nombre\":\"Donald\",\"apellido\":\n";
+		mockMvc.perform(post("/api/clientes/batch").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_NDJSON).content(body))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.procesados").value(2))
+				.andExpect(jsonPath("$.leidos").value(2))
+				.andExpect(jsonPath("$.error").exists());
+
+		assertEquals(2, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM clientes WHERE email IN ('barbara.liskov@gmail.com', 'edsger.dijkstra@gmail.com')", Integer.class));
+	}
+
+	@Test
+	void invalidValueReportsCommittedCount() throws Exception {
+		//El segundo Id no se puede convertir, el primero (que no existe) se reporta como error del elemento
+		mockMvc.perform(delete("/api/clientes/batch").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON).content("[999999, \"abc\", 1]"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.procesados").value(0))
+				.andExpect(jsonPath("$.leidos").value(1))
+				.andExpect(jsonPath("$.errors[0].index").value(0));
+	}
+}
@@ -0,0 +1,161 @@
+package com.bolsadeideas.springboot.backend.apirest.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+//Pruebas de la variante reactiva contra una base de datos H2 embebida accedida por R2DBC
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+@AutoConfigureMetrics
+class ClienteReactiveRestControllerTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Value("${app.security.jwt.signing-key}")
+	private String signingKey;
+
+	private String token;
+
+	//Se firma un token con la misma llave y claims que emite el servidor de autorización de la variante servlet
+	@BeforeEach
+	void setUp() throws Exception {
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+				.claim("user_name", "admin")
+				.claim("authorities", Arrays.asList("ROLE_USER", "ROLE_ADMIN"))
+				.claim("scope", Arrays.asList("read", "write"))
+				.expirationTime(new Date(System.currentTimeMillis() + 60000))
+				.build();
+		SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+		jwt.sign(new MACSigner(signingKey.getBytes(StandardCharsets.UTF_8)));
+		token = jwt.serialize();
+	}
+
+	@Test
+	void createValidatesWithSameErrorMap() {
+		webTestClient.post().uri("/api/clientes")
+				.headers(headers -> headers.setBearerAuth(token))
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(cliente("ab", "Perez", "no-es-email"))
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.errors.length()").isEqualTo(2);
+	}
+
+	@Test
+	void createUpdateAndDelete() {
+		Map<String, Object> body = webTestClient.post().uri("/api/clientes")
+				.headers(headers -> headers.setBearerAuth(token))
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(cliente("Andres", "Guzman", "andres@correo.com"))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(new ParameterizedTypeReference<Map<String, Object>>() {})
+				.returnResult()
+				.getResponseBody();
+		@SuppressWarnings("unchecked")
+		Number id = (Number) ((Map<String, Object>) body.get("cliente")).get("id");
+
+		webTestClient.get().uri("/api/clientes/{id}", id)
+				.headers(headers -> headers.setBearerAuth(token))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+				.expectBody().jsonPath("$.nombre").isEqualTo("Andres");
+
+		webTestClient.get().uri("/api/clientes/{id}", id)
+				.headers(headers -> {
+					headers.setBearerAuth(token);
+					headers.setIfNoneMatch("\"0\"");
+				})
+				.exchange()
+				.expectStatus().isNotModified();
+
+		webTestClient.put().uri("/api/clientes/{id}", id)
+				.headers(headers -> {
+					headers.setBearerAuth(token);
+					headers.setIfMatch("\"5\"");
+				})
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(cliente("Andres", "Lopez", "andres@correo.com"))
+				.exchange()
+				.expectStatus().isEqualTo(412);
+
+		webTestClient.put().uri("/api/clientes/{id}", id)
+				.headers(headers -> {
+					headers.setBearerAuth(token);
+					headers.setIfMatch("\"0\"");
+				})
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(cliente("Andres", "Lopez", "andres@correo.com"))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+				.expectBody().jsonPath("$.cliente.apellido").isEqualTo("Lopez");
+
+		webTestClient.get().uri("/api/clientes")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON);
+
+		webTestClient.delete().uri("/api/clientes/{id}", id)
+				.headers(headers -> headers.setBearerAuth(token))
+				.exchange()
+				.expectStatus().isOk();
+
+		webTestClient.get().uri("/api/clientes/{id}", id)
+				.headers(headers -> headers.setBearerAuth(token))
+				.exchange()
+				.expectStatus().isNotFound()
+				.expectBody().jsonPath("$.mensaje").isEqualTo("El cliente ID: " + id + " no existe");
+	}
+
+	@Test
+	void writesRequireToken() {
+		webTestClient.post().uri("/api/clientes")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(cliente("Andres", "Guzman", "otro@correo.com"))
+				.exchange()
+				.expectStatus().isUnauthorized();
+	}
+
+	@Test
+	void prometheusDoesNotRequireToken() {
+		webTestClient.get().uri("/actuator/prometheus")
+				.exchange()
+				.expectStatus().isOk();
+	}
+
+	private Map<String, Object> cliente(String nombre, String apellido, String email) {
+		Map<String, Object> cliente = new HashMap<String, Object>();
+		cliente.put("nombre", nombre);
+		cliente.put("apellido", apellido);
+		cliente.put("email", email);
+		return cliente;
+	}
+}
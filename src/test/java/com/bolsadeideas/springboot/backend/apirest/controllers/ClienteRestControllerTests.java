@@ -0,0 +1,148 @@
+package com.bolsadeideas.springboot.backend.apirest.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//Pruebas de la actualización parcial (PATCH) y de las proyecciones por campos (?fields=)
+@SpringBootTest
+@AutoConfigureMockMvc
+class ClienteRestControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private String token;
+
+	//Se obtiene un token del servidor de autorización con las credenciales de import.sql
+	@BeforeEach
+	void setUp() throws Exception {
+		String body = mockMvc.perform(post("/oauth/token")
+				.header("Authorization", "Basic " + Base64.getEncoder().encodeToString("angularapp:12345".getBytes(StandardCharsets.UTF_8)))
+				.param("grant_type", "password")
+				.param("username", "admin")
+				.param("password", "12345"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		token = new ObjectMapper().readTree(body).get("access_token").asText();
+	}
+
+	@Test
+	void patchRejectsFieldsOutsideWhitelist() throws Exception {
+		mockMvc.perform(patch("/api/clientes/1").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"id\":5,\"createdAt\":\"2020-01-01\",\"nombre\":7}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.errors.length()").value(3))
+				.andExpect(jsonPath("$.errors[?(@ == \"El campo 'id' no se puede modificar\")]").exists())
+				.andExpect(jsonPath("$.errors[?(@ == \"El campo 'createdAt' no se puede modificar\")]").exists())
+				.andExpect(jsonPath("$.errors[?(@ == \"El campo 'nombre' debe ser un texto\")]").exists());
+
+		//Los campos permitidos se validan con las reglas de la entidad
+		mockMvc.perform(patch("/api/clientes/1").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"email\":\"no-es-un-email\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.errors[0]").value("El campo 'email' no es una dirección de correo válida"));
+
+		mockMvc.perform(patch("/api/clientes/1").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void patchChecksVersion() throws Exception {
+		jdbcTemplate.update("INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES ('Niklaus', 'Wirth', 'niklaus.wirth@patch.example', '2018-01-01', 3)");
+		Long id = jdbcTemplate.queryForObject("SELECT id FROM clientes WHERE email = 'niklaus.wirth@patch.example'", Long.class);
+
+		//Con una versión distinta a la actual no se modifica el cliente
+		mockMvc.perform(patch("/api/clientes/" + id).header("Authorization", "Bearer " + token)
+				.header(HttpHeaders.IF_MATCH, "\"2\"")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"apellido\":\"Pascal\"}"))
+				.andExpect(status().isPreconditionFailed());
+		assertEquals("Wirth", jdbcTemplate.queryForObject("SELECT apellido FROM clientes WHERE id = ?", String.class, id));
+
+		//Con la versión actual se modifica y se devuelve la nueva versión como ETag
+		mockMvc.perform(patch("/api/clientes/" + id).header("Authorization", "Bearer " + token)
+				.header(HttpHeaders.IF_MATCH, "\"3\"")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"apellido\":\"Pascal\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+		assertEquals("Pascal", jdbcTemplate.queryForObject("SELECT apellido FROM clientes WHERE id = ?", String.class, id));
+		assertEquals("Niklaus", jdbcTemplate.queryForObject("SELECT nombre FROM clientes WHERE id = ?", String.class, id));
+	}
+
+	@Test
+	void patchReturnsNotFound() throws Exception {
+		mockMvc.perform(patch("/api/clientes/999999").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"apellido\":\"Pascal\"}"))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.mensaje").value("El cliente ID: 999999 no existe"));
+	}
+
+	//Las proyecciones siempre incluyen el Id y solo los campos solicitados
+	@Test
+	void fieldsProjectOnlyRequestedColumns() throws Exception {
+		mockMvc.perform(get("/api/clientes/1").header("Authorization", "Bearer " + token).param("fields", "email"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(1))
+				.andExpect(jsonPath("$.email").value("profesor@bolsadeideas.com"))
+				.andExpect(jsonPath("$.nombre").doesNotExist());
+
+		mockMvc.perform(get("/api/clientes/page/0").param("fields", "nombre"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content.length()").value(4))
+				.andExpect(jsonPath("$.content[0].id").exists())
+				.andExpect(jsonPath("$.content[0].nombre").exists())
+				.andExpect(jsonPath("$.content[0].email").doesNotExist());
+
+		mockMvc.perform(get("/api/clientes/scroll").param("size", "2").param("fields", "apellido"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content.length()").value(2))
+				.andExpect(jsonPath("$.content[1].apellido").exists())
+				.andExpect(jsonPath("$.content[1].nombre").doesNotExist())
+				.andExpect(jsonPath("$.next").exists());
+
+		MvcResult export = mockMvc.perform(get("/api/clientes").param("fields", "email"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(export))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").exists())
+				.andExpect(jsonPath("$[0].email").exists())
+				.andExpect(jsonPath("$[0].apellido").doesNotExist());
+	}
+
+	@Test
+	void unknownFieldIsRejected() throws Exception {
+		mockMvc.perform(get("/api/clientes/1").header("Authorization", "Bearer " + token).param("fields", "email,password"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensaje").value("El campo 'password' no es válido"));
+
+		mockMvc.perform(get("/api/clientes/page/0").param("fields", "version"))
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,121 @@
+package com.bolsadeideas.springboot.backend.apirest.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//Cliente HTTP de la prueba de carga, envía las peticiones de cada operación con el token del usuario admin
+final class LoadTestClient {
+
+	private final HttpClient httpClient;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final URI baseUri;
+	//Rango de Ids de los clientes generados
+	private final long firstId;
+	private final long lastId;
+	//Cantidad de páginas de 4 clientes entre las que se eligen las de la operación page
+	private final int pages;
+	//Contador para generar emails únicos en la operación create
+	private final AtomicLong created = new AtomicLong();
+	private final String run = Long.toString(System.currentTimeMillis(), 36);
+	private String authorization;
+
+	LoadTestClient(URI baseUri, long firstId, long lastId, int pages) {
+		this.baseUri = baseUri;
+		this.firstId = firstId;
+		this.lastId = lastId;
+		this.pages = pages;
+		//Se usa HTTP/1.1 como los navegadores y balanceadores, las conexiones se reutilizan entre peticiones
+		this.httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+	}
+
+	//Método para obtener el token del usuario admin con las credenciales de import.sql
+	void login(String clientId, String clientSecret) throws IOException, InterruptedException {
+		String credentials = Base64.getEncoder().encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+		HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/oauth/token"))
+				.header("Authorization", "Basic " + credentials)
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString("grant_type=password&username=admin&password=12345"))
+				.build();
+		HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("No se pudo obtener el token: " + response.statusCode() + " " + response.body());
+		}
+		authorization = "Bearer " + objectMapper.readTree(response.body()).path("access_token").asText();
+	}
+
+	//Método para enviar la petición de la operación y devolver el código de estado HTTP
+	int execute(LoadTestMix.Operation operation, Session session) throws IOException, InterruptedException {
+		switch (operation) {
+		case READ:
+			return send(get("/api/clientes/" + randomId()), HttpResponse.BodyHandlers.discarding()).statusCode();
+		case PAGE:
+			return send(get("/api/clientes/page/" + ThreadLocalRandom.current().nextInt(pages)), HttpResponse.BodyHandlers.discarding()).statusCode();
+		case LIST:
+			return scroll(session);
+		case CREATE:
+			long n = created.incrementAndGet();
+			return send(json("/api/clientes").POST(body("Carga", "Creado" + n, "carga" + n + "." + run + "@loadtest.com")),
+					HttpResponse.BodyHandlers.discarding()).statusCode();
+		default:
+			long id = randomId();
+			//Se mantiene el email generado para no cambiar el índice único, solo cambia el apellido
+			return send(json("/api/clientes/" + id).PUT(body("Nombre" + (id % 1000), "Actualizado" + System.nanoTime() % 100000,
+					"cliente" + id + "@loadtest.com")), HttpResponse.BodyHandlers.discarding()).statusCode();
+		}
+	}
+
+	//Método para pedir la siguiente página de la consulta por cursor del hilo, al terminar se vuelve a iniciar
+	private int scroll(Session session) throws IOException, InterruptedException {
+		String path = "/api/clientes/scroll?size=20" + (session.cursor != null ? "&after=" + URLEncoder.encode(session.cursor, StandardCharsets.UTF_8) : "");
+		HttpResponse<byte[]> response = send(get(path), HttpResponse.BodyHandlers.ofByteArray());
+		if (response.statusCode() == 200) {
+			JsonNode next = objectMapper.readTree(response.body()).path("next");
+			session.cursor = next.isTextual() ? next.asText() : null;
+		}
+		return response.statusCode();
+	}
+
+	private long randomId() {
+		return ThreadLocalRandom.current().nextLong(firstId, lastId + 1);
+	}
+
+	private HttpRequest.Builder get(String path) {
+		return HttpRequest.newBuilder(baseUri.resolve(path)).header("Authorization", authorization).GET();
+	}
+
+	private HttpRequest.Builder json(String path) {
+		return HttpRequest.newBuilder(baseUri.resolve(path))
+				.header("Authorization", authorization)
+				.header("Content-Type", "application/json");
+	}
+
+	private HttpRequest.BodyPublisher body(String nombre, String apellido, String email) throws IOException {
+		return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(
+				objectMapper.createObjectNode().put("nombre", nombre).put("apellido", apellido).put("email", email)));
+	}
+
+	private <T> HttpResponse<T> send(HttpRequest.Builder request, HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+		return httpClient.send(request.timeout(Duration.ofSeconds(30)).build(), handler);
+	}
+
+	//Estado de cada hilo de la prueba
+	static final class Session {
+		//Cursor de la consulta por cursor en curso, null para iniciar desde el principio
+		private String cursor;
+	}
+}
@@ -0,0 +1,87 @@
+package com.bolsadeideas.springboot.backend.apirest.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+//Mezcla de operaciones de la prueba de carga, se indica como pesos relativos: read=60,page=15,list=10,create=5,update=10
+final class LoadTestMix {
+
+	//Operaciones que envía la prueba de carga
+	enum Operation {
+		//GET /api/clientes/{id} de un cliente generado al azar
+		READ,
+		//GET /api/clientes/page/{page} de una de las primeras loadtest.pages páginas
+		PAGE,
+		//GET /api/clientes/scroll, cada hilo recorre los clientes siguiendo el cursor next
+		LIST,
+		//POST /api/clientes con un email único
+		CREATE,
+		//PUT /api/clientes/{id} de un cliente generado al azar
+		UPDATE
+	}
+
+	private final Map<Operation, Integer> weights;
+	private final Operation[] operations;
+	//Peso acumulado de cada operación, se elige la primera cuyo acumulado supera el número al azar
+	private final int[] cumulative;
+	private final int total;
+
+	private LoadTestMix(Map<Operation, Integer> weights) {
+		this.weights = weights;
+		this.operations = weights.keySet().toArray(new Operation[0]);
+		this.cumulative = new int[operations.length];
+		int sum = 0;
+		for (int i = 0; i < operations.length; i++) {
+			sum += weights.get(operations[i]);
+			cumulative[i] = sum;
+		}
+		this.total = sum;
+	}
+
+	//Método para leer la mezcla con el formato operación=peso separado por comas
+	static LoadTestMix parse(String mix) {
+		Map<Operation, Integer> weights = new EnumMap<Operation, Integer>(Operation.class);
+		for (String entry : mix.split(",")) {
+			String[] parts = entry.trim().split("=");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("La operación '" + entry + "' de loadtest.mix debe tener el formato nombre=peso");
+			}
+			int weight = Integer.parseInt(parts[1].trim());
+			if (weight < 0) {
+				throw new IllegalArgumentException("El peso de '" + parts[0] + "' no puede ser negativo");
+			}
+			if (weight > 0) {
+				weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+			}
+		}
+		if (weights.isEmpty()) {
+			throw new IllegalArgumentException("loadtest.mix debe incluir al menos una operación");
+		}
+		return new LoadTestMix(weights);
+	}
+
+	//Método para elegir la siguiente operación según los pesos
+	Operation next() {
+		int value = ThreadLocalRandom.current().nextInt(total);
+		for (int i = 0; i < cumulative.length; i++) {
+			if (value < cumulative[i]) {
+				return operations[i];
+			}
+		}
+		return operations[operations.length - 1];
+	}
+
+	Map<Operation, Integer> getWeights() {
+		return weights;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		weights.forEach((operation, weight) -> sb.append(sb.length() > 0 ? "," : "")
+				.append(operation.name().toLowerCase(Locale.ROOT)).append('=').append(weight));
+		return sb.toString();
+	}
+}
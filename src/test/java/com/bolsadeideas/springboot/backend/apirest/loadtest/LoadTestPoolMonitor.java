@@ -0,0 +1,114 @@
+package com.bolsadeideas.springboot.backend.apirest.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Muestrea cada 100 ms los pools Hikari de la aplicación (la primaria y las réplicas si están configuradas)
+//para medir su saturación durante la prueba
+final class LoadTestPoolMonitor {
+
+	private final List<PoolStats> pools = new ArrayList<PoolStats>();
+	private final MeterRegistry meterRegistry;
+	private ScheduledExecutorService scheduler;
+
+	LoadTestPoolMonitor(Collection<HikariDataSource> dataSources, MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		dataSources.forEach(dataSource -> pools.add(new PoolStats(dataSource)));
+	}
+
+	void start() {
+		pools.forEach(pool -> pool.timeoutsAtStart = timeouts(pool.dataSource));
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "loadtest-pool-monitor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleAtFixedRate(() -> pools.forEach(PoolStats::sample), 0, 100, TimeUnit.MILLISECONDS);
+	}
+
+	void stop() throws InterruptedException {
+		scheduler.shutdown();
+		scheduler.awaitTermination(1, TimeUnit.SECONDS);
+		pools.forEach(pool -> pool.timeouts = timeouts(pool.dataSource) - pool.timeoutsAtStart);
+	}
+
+	//Método para obtener las estadísticas de cada pool según su nombre
+	Map<String, Map<String, Object>> toMap() {
+		Map<String, Map<String, Object>> map = new LinkedHashMap<String, Map<String, Object>>();
+		pools.forEach(pool -> map.put(pool.dataSource.getPoolName(), pool.toMap()));
+		return map;
+	}
+
+	//Cantidad de conexiones que no se pudieron obtener dentro de connection-timeout
+	private long timeouts(HikariDataSource dataSource) {
+		Counter counter = meterRegistry.find("hikaricp.connections.timeout").tag("pool", dataSource.getPoolName()).counter();
+		return counter != null ? (long) counter.count() : 0;
+	}
+
+	//Estadísticas de un pool, solo las modifica el hilo del monitor
+	private static final class PoolStats {
+
+		private final HikariDataSource dataSource;
+		private long samples;
+		private long activeSum;
+		private int maxActive;
+		//Muestras con todas las conexiones en uso
+		private long saturated;
+		//Muestras con hilos esperando una conexión
+		private long waiting;
+		private int maxPending;
+		private long timeoutsAtStart;
+		private long timeouts;
+
+		private PoolStats(HikariDataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		private void sample() {
+			HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+			if (pool == null) {
+				return;
+			}
+			int active = pool.getActiveConnections();
+			int pending = pool.getThreadsAwaitingConnection();
+			samples++;
+			activeSum += active;
+			maxActive = Math.max(maxActive, active);
+			maxPending = Math.max(maxPending, pending);
+			if (active >= dataSource.getMaximumPoolSize()) {
+				saturated++;
+			}
+			if (pending > 0) {
+				waiting++;
+			}
+		}
+
+		private Map<String, Object> toMap() {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			map.put("maximumPoolSize", dataSource.getMaximumPoolSize());
+			map.put("averageActive", samples > 0 ? round((double) activeSum / samples) : 0);
+			map.put("maxActive", maxActive);
+			map.put("saturatedPercent", samples > 0 ? round(100.0 * saturated / samples) : 0);
+			map.put("waitingPercent", samples > 0 ? round(100.0 * waiting / samples) : 0);
+			map.put("maxPending", maxPending);
+			map.put("timeouts", timeouts);
+			return map;
+		}
+	}
+
+	static double round(double value) {
+		return Math.round(value * 100) / 100.0;
+	}
+}
@@ -0,0 +1,129 @@
+package com.bolsadeideas.springboot.backend.apirest.loadtest;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+//Resultados de una ejecución de la prueba de carga: latencias por operación en microsegundos (HdrHistogram),
+//cantidad de respuestas por código de estado y saturación de los pools de conexiones
+final class LoadTestResult {
+
+	private final String mode;
+	private final int rows;
+	private final int concurrency;
+	private final LoadTestMix mix;
+	private final Map<LoadTestMix.Operation, OperationStats> operations = new EnumMap<LoadTestMix.Operation, OperationStats>(LoadTestMix.Operation.class);
+	private long elapsedNanos;
+	private Map<String, Map<String, Object>> pools;
+
+	LoadTestResult(String mode, int rows, int concurrency, LoadTestMix mix) {
+		this.mode = mode;
+		this.rows = rows;
+		this.concurrency = concurrency;
+		this.mix = mix;
+		mix.getWeights().keySet().forEach(operation -> operations.put(operation, new OperationStats()));
+	}
+
+	//Método para registrar una petición, status -1 indica un error de conexión o un timeout
+	void record(LoadTestMix.Operation operation, long nanos, int status) {
+		OperationStats stats = operations.get(operation);
+		stats.latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+		stats.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+	}
+
+	void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	void setPools(Map<String, Map<String, Object>> pools) {
+		this.pools = pools;
+	}
+
+	Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		map.put("mode", mode);
+		map.put("rows", rows);
+		map.put("concurrency", concurrency);
+		map.put("mix", mix.toString());
+		map.put("seconds", LoadTestPoolMonitor.round(elapsedNanos / 1e9));
+		Histogram total = new Histogram(3);
+		Map<String, Object> byOperation = new LinkedHashMap<String, Object>();
+		Map<Integer, Long> totalStatuses = new TreeMap<Integer, Long>();
+		operations.forEach((operation, stats) -> {
+			total.add(stats.latency);
+			Map<Integer, Long> statuses = stats.statuses();
+			statuses.forEach((status, count) -> totalStatuses.merge(status, count, Long::sum));
+			byOperation.put(operation.name().toLowerCase(Locale.ROOT), summary(stats.latency, statuses));
+		});
+		map.put("total", summary(total, totalStatuses));
+		map.put("operations", byOperation);
+		map.put("pools", pools);
+		return map;
+	}
+
+	//Método para imprimir los resultados como tabla
+	@SuppressWarnings("unchecked")
+	void print(PrintStream out) {
+		Map<String, Object> map = toMap();
+		out.printf(Locale.ROOT, "%nModo %s: %d clientes, %d hilos, %s s, mezcla %s%n", mode, rows, concurrency, map.get("seconds"), mix);
+		out.printf(Locale.ROOT, "%-10s %10s %10s %8s %9s %9s %9s %9s%n", "operación", "peticiones", "req/s", "errores", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+		((Map<String, Object>) map.get("operations")).forEach((name, summary) -> printRow(out, name, (Map<String, Object>) summary));
+		printRow(out, "total", (Map<String, Object>) map.get("total"));
+		if (pools != null) {
+			pools.forEach((name, pool) -> out.printf(Locale.ROOT,
+					"Pool %s: máximo %s, activas promedio %s (máximo %s), saturado %s%% y con espera %s%% de las muestras, esperando máximo %s, timeouts %s%n",
+					name, pool.get("maximumPoolSize"), pool.get("averageActive"), pool.get("maxActive"), pool.get("saturatedPercent"),
+					pool.get("waitingPercent"), pool.get("maxPending"), pool.get("timeouts")));
+		}
+	}
+
+	private void printRow(PrintStream out, String name, Map<String, Object> summary) {
+		out.printf(Locale.ROOT, "%-10s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f%n", name, summary.get("requests"), summary.get("throughput"),
+				summary.get("errors"), summary.get("p50"), summary.get("p99"), summary.get("p999"), summary.get("max"));
+	}
+
+	//Método para resumir un histograma: peticiones, peticiones por segundo, errores y percentiles en milisegundos
+	//Se consideran errores las respuestas 5xx, las 4xx salvo 404 y 412 (esperables con escrituras concurrentes) y los errores de conexión
+	private Map<String, Object> summary(Histogram latency, Map<Integer, Long> statuses) {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		long requests = latency.getTotalCount();
+		long errors = statuses.entrySet().stream()
+				.filter(e -> e.getKey() < 0 || (e.getKey() >= 400 && e.getKey() != 404 && e.getKey() != 412))
+				.mapToLong(Map.Entry::getValue).sum();
+		map.put("requests", requests);
+		map.put("throughput", elapsedNanos > 0 ? LoadTestPoolMonitor.round(requests / (elapsedNanos / 1e9)) : 0.0);
+		map.put("errors", errors);
+		map.put("p50", millis(latency.getValueAtPercentile(50)));
+		map.put("p99", millis(latency.getValueAtPercentile(99)));
+		map.put("p999", millis(latency.getValueAtPercentile(99.9)));
+		map.put("max", millis(latency.getMaxValue()));
+		map.put("statuses", statuses);
+		return map;
+	}
+
+	private static double millis(long micros) {
+		return micros / 1000.0;
+	}
+
+	//Estadísticas de una operación, se registran desde todos los hilos de la prueba
+	private static final class OperationStats {
+
+		private final Histogram latency = new ConcurrentHistogram(3);
+		private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<Integer, LongAdder>();
+
+		private Map<Integer, Long> statuses() {
+			Map<Integer, Long> map = new TreeMap<Integer, Long>();
+			statuses.forEach((status, count) -> map.put(status, count.sum()));
+			return map;
+		}
+	}
+}
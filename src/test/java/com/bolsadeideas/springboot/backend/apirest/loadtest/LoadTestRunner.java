@@ -0,0 +1,196 @@
+package com.bolsadeideas.springboot.backend.apirest.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.StreamUtils;
+
+import com.bolsadeideas.springboot.backend.apirest.SpringBootBackendApirestApplication;
+import com.bolsadeideas.springboot.backend.apirest.models.services.IClienteStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Prueba de carga de la Api REST: levanta la aplicación contra una base de datos H2 embebida, la pobla con loadtest.rows
+//clientes generados por loadtest/import-clientes.sql y envía peticiones HTTP reales (token, filtros de seguridad,
+//Tomcat y serialización) desde loadtest.concurrency hilos con la mezcla de operaciones de loadtest.mix
+//Cada modo de loadtest.modes es una lista de perfiles de Spring separados por '+' ("default" sin perfiles adicionales),
+//por ejemplo -Dloadtest.modes=default,virtual compara los hilos de plataforma de Tomcat con los hilos virtuales (Java 21)
+//El modelo es cerrado: cada hilo envía la siguiente petición al recibir la respuesta, por lo que la latencia no incluye
+//el tiempo que habrían esperado las peticiones que no se llegaron a enviar mientras el servidor estaba saturado
+//Los hilos de la prueba comparten la JVM y los núcleos con la aplicación, los resultados solo son comparables entre
+//ejecuciones en la misma máquina
+//Se ejecuta con el perfil loadtest de Maven, el resultado queda en target/loadtest-result.json
+public final class LoadTestRunner {
+
+	//Primer Id de los clientes generados, los de import.sql quedan por debajo
+	private static final long FIRST_ID = 1_000_000L;
+
+	//Cantidad de clientes que se insertan en cada sentencia
+	private static final int SEED_CHUNK = 100_000;
+
+	private LoadTestRunner() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int rows = Integer.getInteger("loadtest.rows", 1_000_000);
+		int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+		int pages = Integer.getInteger("loadtest.pages", 1000);
+		Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "15s"));
+		Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s"));
+		LoadTestMix mix = LoadTestMix.parse(System.getProperty("loadtest.mix", "read=60,page=15,list=10,create=5,update=10"));
+		File output = new File(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+		//Devtools reinicia la aplicación en otro hilo cuando se inicia desde un método main, se deshabilita para medir
+		System.setProperty("spring.devtools.restart.enabled", "false");
+
+		List<Map<String, Object>> results = new ArrayList<Map<String, Object>>();
+		for (String mode : System.getProperty("loadtest.modes", "default").split(",")) {
+			try {
+				LoadTestResult result = run(mode.trim(), rows, concurrency, pages, warmup, duration, mix);
+				result.print(System.out);
+				results.add(result.toMap());
+			} catch (Exception e) {
+				//Un modo que no puede iniciar (por ejemplo virtual con Java 17) no impide ejecutar los demás
+				String cause = NestedExceptionUtils.getMostSpecificCause(e).toString();
+				System.err.printf("%nEl modo %s no se pudo ejecutar: %s%n", mode, cause);
+				Map<String, Object> error = new LinkedHashMap<String, Object>();
+				error.put("mode", mode.trim());
+				error.put("error", cause);
+				results.add(error);
+			}
+		}
+
+		output.getAbsoluteFile().getParentFile().mkdirs();
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output, results);
+		System.out.printf("%nResultados en %s%n", output.getAbsolutePath());
+	}
+
+	//Método para ejecutar la prueba completa de un modo: arranque, carga de datos, calentamiento y medición
+	private static LoadTestResult run(String mode, int rows, int concurrency, int pages, Duration warmup, Duration duration,
+			LoadTestMix mix) throws Exception {
+		ConfigurableApplicationContext context = start(mode, concurrency);
+		try {
+			seed(context, rows);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			LoadTestClient client = new LoadTestClient(URI.create("http://localhost:" + port), FIRST_ID, FIRST_ID + rows - 1,
+					Math.max(1, Math.min(pages, rows / 4)));
+			client.login(context.getEnvironment().getProperty("app.security.client-id"),
+					context.getEnvironment().getProperty("app.security.client-secret"));
+
+			System.out.printf("Modo %s: calentamiento de %d s%n", mode, warmup.getSeconds());
+			drive(client, mix, concurrency, warmup, null);
+
+			System.out.printf("Modo %s: medición de %d s%n", mode, duration.getSeconds());
+			LoadTestResult result = new LoadTestResult(mode, rows, concurrency, mix);
+			LoadTestPoolMonitor poolMonitor = new LoadTestPoolMonitor(context.getBeansOfType(HikariDataSource.class).values(),
+					context.getBean(MeterRegistry.class));
+			poolMonitor.start();
+			result.setElapsedNanos(drive(client, mix, concurrency, duration, result));
+			poolMonitor.stop();
+			result.setPools(poolMonitor.toMap());
+			return result;
+		} finally {
+			context.close();
+		}
+	}
+
+	//Método para levantar la aplicación en un puerto libre con los perfiles del modo y una base de datos H2 propia,
+	//al cerrar la aplicación create-drop elimina las tablas y se libera la memoria antes del siguiente modo
+	//Las propiedades se envían como argumentos para que tengan prioridad sobre application.properties
+	private static ConfigurableApplicationContext start(String mode, int concurrency) {
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(SpringBootBackendApirestApplication.class);
+		if (!"default".equals(mode)) {
+			builder.profiles(mode.split("\\+"));
+		}
+		return builder.run("--server.port=0", "--spring.main.banner-mode=off",
+				//Se deshabilita el límite de peticiones, ya que todas las peticiones de la prueba vienen del mismo consumidor
+				"--app.rate-limit.enabled=false",
+				"--spring.datasource.url=jdbc:h2:mem:loadtest_" + mode.replace('+', '_')
+						+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+				"--spring.jpa.show-sql=false", "--logging.level.root=warn", "--logging.level.org.hibernate.SQL=warn",
+				//Tomcat debe aceptar todas las conexiones de la prueba para que la espera se mida en la aplicación
+				"--server.tomcat.max-connections=" + Math.max(8192, concurrency * 2),
+				"--app.security.access-token-validity=86400");
+	}
+
+	//Método para poblar la tabla clientes por bloques, cada bloque se confirma por separado
+	private static void seed(ConfigurableApplicationContext context, int rows) throws IOException {
+		String sql;
+		try (InputStream in = new ClassPathResource("loadtest/import-clientes.sql").getInputStream()) {
+			sql = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+		}
+		NamedParameterJdbcTemplate jdbcTemplate = context.getBean(NamedParameterJdbcTemplate.class);
+		long start = System.nanoTime();
+		jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE clientes ALTER COLUMN id RESTART WITH " + FIRST_ID);
+		for (long from = FIRST_ID; from < FIRST_ID + rows; from += SEED_CHUNK) {
+			long to = Math.min(from + SEED_CHUNK, FIRST_ID + rows) - 1;
+			jdbcTemplate.update(sql, new MapSqlParameterSource("from", from).addValue("to", to));
+		}
+		//Se comprueba que cada Id coincida con el número de su email, del que dependen las actualizaciones
+		Integer mismatched = jdbcTemplate.getJdbcTemplate().queryForObject(
+				"SELECT COUNT(*) FROM clientes WHERE id >= ? AND email <> CONCAT('cliente', id, '@loadtest.com')", Integer.class, FIRST_ID);
+		if (mismatched == null || mismatched > 0) {
+			throw new IllegalStateException(mismatched + " clientes generados tienen un Id distinto al número de su email");
+		}
+		//Las estadísticas se calcularon al iniciar, se recalculan con los clientes generados
+		context.getBean(IClienteStatsService.class).reconcile();
+		System.out.printf("Se generaron %d clientes en %d ms%n", rows, Duration.ofNanos(System.nanoTime() - start).toMillis());
+	}
+
+	//Método para enviar peticiones desde los hilos indicados durante el tiempo indicado, devuelve el tiempo transcurrido
+	//Con result null (calentamiento) las latencias no se registran
+	private static long drive(LoadTestClient client, LoadTestMix mix, int concurrency, Duration duration, LoadTestResult result)
+			throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		long start = System.nanoTime();
+		long deadline = start + duration.toNanos();
+		try {
+			List<Future<?>> workers = new ArrayList<Future<?>>();
+			for (int i = 0; i < concurrency; i++) {
+				workers.add(executor.submit(() -> {
+					LoadTestClient.Session session = new LoadTestClient.Session();
+					while (System.nanoTime() - deadline < 0) {
+						LoadTestMix.Operation operation = mix.next();
+						long begin = System.nanoTime();
+						int status;
+						try {
+							status = client.execute(operation, session);
+						} catch (IOException e) {
+							status = -1;
+						}
+						if (result != null) {
+							result.record(operation, System.nanoTime() - begin, status);
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+			return System.nanoTime() - start;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.bolsadeideas.springboot.backend.apirest.models.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//Pruebas de la recuperación de los clientes pendientes del registro de la cola asíncrona
+class ClienteIngestJournalTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void recoversOnlyPendingClientes() throws IOException {
+		Path file = dir.resolve("clientes-ingest.log");
+		try (ClienteIngestJournal journal = new ClienteIngestJournal(file, objectMapper, true, Long.MAX_VALUE)) {
+			assertTrue(journal.recover().isEmpty());
+			journal.append("a", cliente("Andres"));
+			journal.append("b", cliente("Linus"));
+			journal.append("c", cliente("Rasmus"));
+			journal.markDone(Collections.singletonList("b"));
+		}
+		//Se simula una escritura interrumpida al final del archivo
+		Files.write(file, "{\"tipo\":\"alta\",\"tracki".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		try (ClienteIngestJournal journal = new ClienteIngestJournal(file, objectMapper, true, Long.MAX_VALUE)) {
+			Map<String, Cliente> pending = journal.recover();
+			assertEquals(Arrays.asList("a", "c"), Arrays.asList(pending.keySet().toArray()));
+			assertEquals("Rasmus", pending.get("c").getNombre());
+		}
+		//Al recuperar se reescribe el archivo solo con las altas pendientes
+		assertEquals(2, Files.readAllLines(file).size());
+	}
+
+	@Test
+	void truncatesWhenNothingIsPending() throws IOException {
+		Path file = dir.resolve("clientes-ingest.log");
+		try (ClienteIngestJournal journal = new ClienteIngestJournal(file, objectMapper, false, 1)) {
+			journal.recover();
+			journal.append("a", cliente("Andres"));
+			journal.append("b", cliente("Linus"));
+			journal.markDone(Collections.singletonList("a"));
+			assertTrue(Files.size(file) > 0);
+			journal.markDone(Collections.singletonList("b"));
+			assertEquals(0, Files.size(file));
+		}
+	}
+
+	private Cliente cliente(String nombre) {
+		Cliente cliente = new Cliente();
+		cliente.setNombre(nombre);
+		cliente.setApellido("Test");
+		cliente.setEmail(nombre.toLowerCase() + "@test.com");
+		return cliente;
+	}
+}
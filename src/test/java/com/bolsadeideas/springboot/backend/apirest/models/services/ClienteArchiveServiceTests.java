@@ -0,0 +1,83 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+//Pruebas del borrado lógico y del archivado de los clientes eliminados, y de la validación de sus emails
+@SpringBootTest
+class ClienteArchiveServiceTests {
+
+	@Autowired
+	private IClienteService clienteService;
+
+	@Autowired
+	private IClienteArchiveService clienteArchiveService;
+
+	@Autowired
+	private IClienteEmailService clienteEmailService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void deletedClientesAreHiddenAndArchivedAfterRetention() {
+		Cliente cliente = new Cliente();
+		cliente.setNombre("Grace");
+		cliente.setApellido("Hopper");
+		cliente.setEmail("grace.hopper@gmail.com");
+		Long id = clienteService.save(cliente).getId();
+
+		assertEquals(1, clienteService.delete(id));
+		//La fila sigue en la tabla pero ya no se obtiene por Id y no se puede volver a eliminar
+		assertNull(clienteService.findById(id));
+		assertEquals(0, clienteService.delete(id));
+		assertEquals(1, count("SELECT COUNT(*) FROM clientes WHERE id = ?", id));
+
+		//Mientras no se cumpla el tiempo de retención no se archiva
+		assertEquals(0, clienteArchiveService.archive());
+		//Mientras no se archiva el email sigue ocupando el índice único y se informa que pertenece a un cliente eliminado
+		assertTrue(clienteEmailService.exists("grace.hopper@gmail.com", null));
+		assertTrue(clienteEmailService.conflictMessage("grace.hopper@gmail.com").contains("cliente eliminado"));
+
+		jdbcTemplate.update("UPDATE clientes SET deleted_at = ? WHERE id = ?", Timestamp.valueOf("2000-01-01 00:00:00"), id);
+		assertEquals(1, clienteArchiveService.archive());
+		assertEquals(0, count("SELECT COUNT(*) FROM clientes WHERE id = ?", id));
+		assertEquals(1, count("SELECT COUNT(*) FROM clientes_archivo WHERE id = ? AND email = 'grace.hopper@gmail.com'", id));
+		//Al archivarse el email se puede volver a registrar
+		assertFalse(clienteEmailService.exists("grace.hopper@gmail.com", null));
+	}
+
+	//Simula otra instancia que ya archivó el cliente: el lote se revierte sin que la excepción salga de la tarea
+	@Test
+	void batchArchivedByAnotherInstanceIsSkipped() {
+		Cliente cliente = new Cliente();
+		cliente.setNombre("Barbara");
+		cliente.setApellido("Liskov");
+		cliente.setEmail("barbara.liskov@gmail.com");
+		Long id = clienteService.save(cliente).getId();
+		clienteService.delete(id);
+		jdbcTemplate.update("UPDATE clientes SET deleted_at = ? WHERE id = ?", Timestamp.valueOf("2000-01-01 00:00:00"), id);
+		jdbcTemplate.update("INSERT INTO clientes_archivo (id, nombre, email) VALUES (?, 'Barbara', 'barbara.liskov@gmail.com')", id);
+
+		assertEquals(0, clienteArchiveService.archive());
+		assertEquals(1, count("SELECT COUNT(*) FROM clientes WHERE id = ?", id));
+
+		//Se deja la tabla como si la otra instancia hubiera terminado
+		jdbcTemplate.update("DELETE FROM clientes WHERE id = ?", id);
+	}
+
+	private int count(String sql, Long id) {
+		return jdbcTemplate.queryForObject(sql, Integer.class, id);
+	}
+}
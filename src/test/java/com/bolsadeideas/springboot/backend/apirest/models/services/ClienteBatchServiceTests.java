@@ -0,0 +1,39 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.sql.Date;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+//Pruebas de las operaciones masivas sobre clientes
+@SpringBootTest
+class ClienteBatchServiceTests {
+
+	@Autowired
+	private IClienteBatchService clienteBatchService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void updateKeepsCreationDate() {
+		ClienteBatchResult insert = clienteBatchService.insertAll(Collections.singletonList(
+				ClienteTestData.cliente(null, "Augusta", "Lovelace", "ada.lovelace@gmail.com")).iterator());
+		assertFalse(insert.hasErrors(), () -> insert.getErrores().toString());
+		Long id = jdbcTemplate.queryForObject("SELECT id FROM clientes WHERE email = 'ada.lovelace@gmail.com'", Long.class);
+		jdbcTemplate.update("UPDATE clientes SET create_at = ? WHERE id = ?", Date.valueOf("2018-05-01"), id);
+
+		//El payload no trae la fecha de creación, igual que el formulario del front end
+		ClienteBatchResult update = clienteBatchService.updateAll(Collections.singletonList(
+				ClienteTestData.cliente(id, "Augusta", "King", "ada.lovelace@gmail.com")).iterator());
+		assertFalse(update.hasErrors(), () -> update.getErrores().toString());
+		assertEquals(Date.valueOf("2018-05-01"), jdbcTemplate.queryForObject("SELECT create_at FROM clientes WHERE id = ?", Date.class, id));
+		assertEquals("King", jdbcTemplate.queryForObject("SELECT apellido FROM clientes WHERE id = ?", String.class, id));
+	}
+}
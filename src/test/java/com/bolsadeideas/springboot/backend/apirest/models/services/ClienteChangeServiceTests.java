@@ -0,0 +1,107 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+//Pruebas del buffer de cambios y de la entrega de eventos a los suscriptores, incluida la reconexión con Last-Event-ID
+@SpringBootTest
+class ClienteChangeServiceTests {
+
+	@Autowired
+	private IClienteService clienteService;
+
+	@Autowired
+	private IClienteChangeService clienteChangeService;
+
+	@Autowired
+	private IClienteBatchService clienteBatchService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void subscribersReceiveCommittedChangesAndResume() throws Exception {
+		CompletableFuture<List<ServerSentEvent<Object>>> received = clienteChangeService.subscribe(null)
+				.filter(event -> event.id() != null)
+				.take(2)
+				.collectList()
+				.toFuture();
+
+		Cliente cliente = new Cliente();
+		cliente.setNombre("Augusta");
+		cliente.setApellido("Lovelace");
+		cliente.setEmail("ada.lovelace@changes.example");
+		Long id = clienteService.save(cliente).getId();
+		clienteService.delete(id);
+
+		List<ServerSentEvent<Object>> live = received.get(10, TimeUnit.SECONDS);
+		assertEquals(Arrays.asList("creado", "eliminado"), live.stream().map(ServerSentEvent::event).collect(Collectors.toList()));
+		assertEquals(id, ((ClienteChangeEvent) live.get(1).data()).getId());
+
+		//Al reconectarse con el Id del primer evento se recibe solo el segundo
+		ServerSentEvent<Object> resumed = clienteChangeService.subscribe(live.get(0).id())
+				.next()
+				.toFuture()
+				.get(10, TimeUnit.SECONDS);
+		assertEquals(live.get(1).id(), resumed.id());
+
+		//Un Id que ya no está en el buffer recibe un evento reset
+		ServerSentEvent<Object> reset = clienteChangeService.subscribe("1")
+				.next()
+				.toFuture()
+				.get(10, TimeUnit.SECONDS);
+		assertEquals("reset", reset.event());
+	}
+
+	@Test
+	void batchOperationsPublishOneEventPerRow() throws Exception {
+		CompletableFuture<List<ServerSentEvent<Object>>> received = clienteChangeService.subscribe(null)
+				.filter(event -> event.id() != null)
+				.take(4)
+				.collectList()
+				.toFuture();
+
+		clienteBatchService.insertAll(Arrays.asList(ClienteTestData.cliente(null, "Hedy", "Lamarr", "hedy.lamarr@changes.example"),
+				ClienteTestData.cliente(null, "Katherine", "Johnson", "katherine.johnson@changes.example")).iterator());
+		Long hedy = jdbcTemplate.queryForObject("SELECT id FROM clientes WHERE email = 'hedy.lamarr@changes.example'", Long.class);
+		Long katherine = jdbcTemplate.queryForObject("SELECT id FROM clientes WHERE email = 'katherine.johnson@changes.example'", Long.class);
+		clienteBatchService.updateAll(Arrays.asList(ClienteTestData.cliente(hedy, "Hedwig", "Lamarr", "hedy.lamarr@changes.example")).iterator());
+		//Un Id inexistente no genera evento
+		clienteBatchService.deleteAll(Arrays.asList(katherine, 999999L).iterator());
+
+		List<ServerSentEvent<Object>> events = received.get(10, TimeUnit.SECONDS);
+		assertEquals(Arrays.asList("creado", "creado", "actualizado", "eliminado"),
+				events.stream().map(ServerSentEvent::event).collect(Collectors.toList()));
+		assertEquals(Arrays.asList(hedy, katherine, hedy, katherine),
+				events.stream().map(event -> ((ClienteChangeEvent) event.data()).getId()).collect(Collectors.toList()));
+		assertEquals("Hedy", ((ClienteChangeEvent) events.get(0).data()).getCliente().getNombre());
+	}
+
+	@Test
+	void bufferOverwritesOldestEvents() {
+		ClienteChangeBuffer buffer = new ClienteChangeBuffer(3, 100);
+		for (long i = 1; i <= 5; i++) {
+			buffer.append(new ClienteChangeEvent(ClienteChangeEvent.Tipo.CREADO, i, null));
+		}
+
+		assertEquals(102, buffer.oldestOffset());
+		assertNull(buffer.read(101, 10));
+		assertEquals(Arrays.asList(3L, 4L, 5L), buffer.read(102, 10).stream().map(ClienteChangeEvent::getId).collect(Collectors.toList()));
+		assertEquals(0, buffer.read(105, 10).size());
+		assertNull(buffer.read(106, 10));
+	}
+}
@@ -0,0 +1,41 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+//Pruebas del filtro de Bloom de emails: nunca debe descartar un email agregado y los falsos positivos
+//deben mantenerse cerca de la tasa configurada
+class ClienteEmailBloomFilterTests {
+
+	@Test
+	void addedEmailsAreAlwaysFound() {
+		ClienteEmailBloomFilter filter = new ClienteEmailBloomFilter(10000, 0.01);
+		for (int i = 0; i < 10000; i++) {
+			filter.put("cliente" + i + "@test.com");
+		}
+		for (int i = 0; i < 10000; i++) {
+			assertTrue(filter.mightContain("cliente" + i + "@test.com"));
+		}
+		assertFalse(filter.isSaturated());
+	}
+
+	@Test
+	void falsePositiveRateStaysNearConfigured() {
+		ClienteEmailBloomFilter filter = new ClienteEmailBloomFilter(10000, 0.01);
+		for (int i = 0; i < 10000; i++) {
+			filter.put("cliente" + i + "@test.com");
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 10000; i++) {
+			if (filter.mightContain("otro" + i + "@test.com")) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 300, "Falsos positivos: " + falsePositives);
+
+		filter.put("uno.mas@test.com");
+		assertTrue(filter.isSaturated());
+	}
+}
@@ -0,0 +1,53 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+//Pruebas de la reconstrucción del filtro de emails: al saturarse se reconstruye en otro hilo, sin bloquear la
+//transacción que registró el email, y el filtro nuevo incluye los emails registrados mientras tanto
+@SpringBootTest(properties = "app.clientes.email-filter.expected-insertions=20")
+class ClienteEmailFilterRebuildTests {
+
+	@Autowired
+	private IClienteEmailService clienteEmailService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void saturatedFilterIsRebuiltInBackground() throws InterruptedException {
+		ClienteEmailBloomFilter saturado = filter();
+		//Los emails se registran sin guardarse, como en un guardado cuya transacción aún no se confirma
+		//Se registran hasta saturar el filtro original, el nuevo puede publicarse antes de terminar el ciclo
+		String ultimo = transactionTemplate.execute(status -> {
+			String email = null;
+			for (int i = 0; !saturado.isSaturated(); i++) {
+				email = "cliente" + i + "@rebuild.example";
+				clienteEmailService.register(email);
+			}
+			return email;
+		});
+
+		for (int i = 0; i < 100 && filter() == saturado; i++) {
+			Thread.sleep(50);
+		}
+		ClienteEmailBloomFilter nuevo = filter();
+		assertNotSame(saturado, nuevo);
+		assertFalse(nuevo.isSaturated());
+		//El email que saturó el filtro no estaba en la tabla al recorrerla, pero se agrega al filtro nuevo
+		assertTrue(nuevo.mightContain(ultimo));
+	}
+
+	private ClienteEmailBloomFilter filter() {
+		Object target = AopTestUtils.getTargetObject(clienteEmailService);
+		return (ClienteEmailBloomFilter) ReflectionTestUtils.getField(target, "filter");
+	}
+}
@@ -0,0 +1,55 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+//Pruebas de la validación de emails duplicados: los emails se guardan en minúsculas y el filtro y la consulta
+//a la tabla comparan el email normalizado
+@SpringBootTest
+class ClienteEmailServiceTests {
+
+	@Autowired
+	private IClienteEmailService clienteEmailService;
+
+	@Autowired
+	private IClienteService clienteService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void duplicatesIgnoreCase() {
+		Long id = jdbcTemplate.queryForObject("SELECT id FROM clientes WHERE email = 'profesor@bolsadeideas.com'", Long.class);
+
+		assertTrue(clienteEmailService.exists("Profesor@BolsaDeIdeas.com", null));
+		assertTrue(clienteEmailService.exists("PROFESOR@bolsadeideas.com", id + 1));
+		//El email del mismo cliente no se considera duplicado
+		assertFalse(clienteEmailService.exists("Profesor@BolsaDeIdeas.com", id));
+	}
+
+	@Test
+	void emailsAreStoredLowercase() {
+		Cliente cliente = new Cliente();
+		cliente.setNombre("Grace");
+		cliente.setApellido("Hopper");
+		cliente.setEmail("Grace.Hopper@Example.com");
+		Long id = clienteService.save(cliente).getId();
+		assertEquals("grace.hopper@example.com", jdbcTemplate.queryForObject("SELECT email FROM clientes WHERE id = ?", String.class, id));
+
+		Map<String, Object> fields = new HashMap<String, Object>();
+		fields.put("email", "G.Hopper@Example.com");
+		clienteService.patch(id, fields, null);
+		assertEquals("g.hopper@example.com", jdbcTemplate.queryForObject("SELECT email FROM clientes WHERE id = ?", String.class, id));
+	}
+}
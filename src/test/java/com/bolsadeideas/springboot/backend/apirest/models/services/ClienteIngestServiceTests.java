@@ -0,0 +1,99 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+//Pruebas de la cola asíncrona cuando el lote completo falla: se reintenta con espera y al agotar los intentos queda con ERROR
+//Con un solo hilo el orden en que se forman los lotes es predecible
+@SpringBootTest(properties = {"app.clientes.async.enabled=true", "app.clientes.async.workers=1", "app.clientes.async.max-attempts=2",
+		"app.clientes.async.retry-backoff=50ms"})
+class ClienteIngestServiceTests {
+
+	@Autowired
+	private IClienteIngestService clienteIngestService;
+
+	@MockBean
+	private IClienteBatchService clienteBatchService;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedBatchIsRetried() throws InterruptedException {
+		when(clienteBatchService.insertAll(any(Iterator.class)))
+				.thenThrow(new DataAccessResourceFailureException("Sin conexión"))
+				.thenReturn(new ClienteBatchResult());
+
+		ClienteIngestStatus status = await(clienteIngestService.submit(cliente()));
+		assertEquals(ClienteIngestStatus.COMPLETADO, status.getEstado());
+		verify(clienteBatchService, times(2)).insertAll(any(Iterator.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedBatchIsMarkedAsErrorAfterLastAttempt() throws InterruptedException {
+		when(clienteBatchService.insertAll(any(Iterator.class))).thenThrow(new DataAccessResourceFailureException("Sin conexión"));
+
+		ClienteIngestStatus status = await(clienteIngestService.submit(cliente()));
+		assertEquals(ClienteIngestStatus.ERROR, status.getEstado());
+		assertTrue(status.getErrors().get(0).contains("Sin conexión"), status.getErrors().toString());
+		verify(clienteBatchService, times(2)).insertAll(any(Iterator.class));
+	}
+
+	//El cliente reintentado se procesa en el mismo lote que uno nuevo, cada uno agota sus propios intentos
+	@Test
+	@SuppressWarnings("unchecked")
+	void retriedAndNewClientesInSameBatchKeepTheirAttempts() throws InterruptedException {
+		AtomicReference<String> nuevo = new AtomicReference<String>();
+		when(clienteBatchService.insertAll(any(Iterator.class)))
+				//Primer lote, solo el reintentado: falla y mientras tanto llega otro cliente que ocupa al hilo
+				.thenAnswer(invocation -> {
+					clienteIngestService.submit(cliente());
+					throw new DataAccessResourceFailureException("Sin conexión");
+				})
+				//Segundo lote: al terminar ya se volvió a encolar el primero y se encola el nuevo detrás de él
+				.thenAnswer(invocation -> {
+					Thread.sleep(200);
+					nuevo.set(clienteIngestService.submit(cliente()));
+					return new ClienteBatchResult();
+				})
+				//Tercer lote con ambos: el reintentado agota sus intentos y el nuevo se reintenta solo
+				.thenThrow(new DataAccessResourceFailureException("Sin conexión"))
+				.thenReturn(new ClienteBatchResult());
+
+		ClienteIngestStatus reintentado = await(clienteIngestService.submit(cliente()));
+		assertEquals(ClienteIngestStatus.ERROR, reintentado.getEstado());
+		assertEquals(ClienteIngestStatus.COMPLETADO, await(nuevo.get()).getEstado());
+		verify(clienteBatchService, times(4)).insertAll(any(Iterator.class));
+	}
+
+	//Método para esperar a que el cliente deje de estar pendiente
+	private ClienteIngestStatus await(String trackingId) throws InterruptedException {
+		ClienteIngestStatus status = clienteIngestService.findStatus(trackingId);
+		for (int i = 0; i < 100 && ClienteIngestStatus.PENDIENTE.equals(status.getEstado()); i++) {
+			Thread.sleep(50);
+		}
+		return status;
+	}
+
+	private Cliente cliente() {
+		Cliente cliente = new Cliente();
+		cliente.setNombre("Alan");
+		cliente.setApellido("Turing");
+		cliente.setEmail("alan.turing@gmail.com");
+		return cliente;
+	}
+}
@@ -0,0 +1,94 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+//Pruebas de la búsqueda por prefijo paginada por cursor: las páginas cruzan las etapas nombre, apellido y email,
+//y cada cliente se entrega una sola vez aunque coincida en varios campos
+@SpringBootTest
+class ClienteSearchTests {
+
+	@Autowired
+	private IClienteService clienteService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	//Ids en el orden en que la búsqueda debe entregarlos
+	private final List<Long> esperados = new ArrayList<Long>();
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM clientes WHERE email LIKE '%@search.example'");
+		esperados.clear();
+		//Etapa nombre: dos clientes con el mismo nombre se ordenan por Id, el tercero también coincide por apellido
+		insert("zqana", "perez", "a1@search.example");
+		insert("zqana", "gomez", "a2@search.example");
+		insert("zqbeto", "zqsanchez", "a3@search.example");
+		//Etapa apellido: el segundo también coincide por email
+		insert("luis", "zqdiaz", "a4@search.example");
+		insert("luis", "zqdiaz", "zqluis@search.example");
+		//Etapa email
+		insert("mario", "ruiz", "zqmario@search.example");
+		insert("nora", "ruiz", "zqnora@search.example");
+	}
+
+	//Con cada tamaño de página los cortes caen en distintas posiciones, incluyendo los cambios de etapa
+	@Test
+	void pagesCrossStagesWithoutDuplicatesOrGaps() {
+		for (int size = 1; size <= esperados.size() + 1; size++) {
+			assertEquals(esperados, searchAll("zq", size), "Tamaño de página " + size);
+		}
+	}
+
+	//El cursor de la última página de una etapa continúa en la siguiente etapa desde el principio
+	@Test
+	void cursorAtEndOfStageResumesInNextStage() {
+		ClienteSearchResult nombres = clienteService.search("zq", ClienteSearchCursor.START, 3);
+		assertEquals(esperados.subList(0, 3), ids(nombres.getContent()));
+		assertEquals(ClienteSearchCursor.NOMBRE, nombres.getNext().getStage());
+
+		ClienteSearchResult siguiente = clienteService.search("zq", ClienteSearchCursor.decode(nombres.getNext().encode()), 3);
+		assertEquals(esperados.subList(3, 6), ids(siguiente.getContent()));
+		assertEquals(ClienteSearchCursor.EMAIL, siguiente.getNext().getStage());
+
+		ClienteSearchResult ultima = clienteService.search("zq", ClienteSearchCursor.decode(siguiente.getNext().encode()), 3);
+		assertEquals(esperados.subList(6, 7), ids(ultima.getContent()));
+		assertNull(ultima.getNext());
+	}
+
+	//Método para recorrer todas las páginas pasando el cursor codificado, igual que el consumidor de la Api
+	private List<Long> searchAll(String prefix, int size) {
+		List<Long> encontrados = new ArrayList<Long>();
+		ClienteSearchCursor cursor = ClienteSearchCursor.START;
+		for (int i = 0; cursor != null && i <= esperados.size(); i++) {
+			ClienteSearchResult result = clienteService.search(prefix, cursor, size);
+			encontrados.addAll(ids(result.getContent()));
+			cursor = result.getNext() != null ? ClienteSearchCursor.decode(result.getNext().encode()) : null;
+		}
+		return encontrados;
+	}
+
+	private List<Long> ids(List<Cliente> clientes) {
+		List<Long> ids = new ArrayList<Long>();
+		clientes.forEach(cliente -> ids.add(cliente.getId()));
+		return ids;
+	}
+
+	private void insert(String nombre, String apellido, String email) {
+		jdbcTemplate.update("INSERT INTO clientes (nombre, apellido, email, create_at, version) VALUES (?, ?, ?, '2018-01-01', 0)",
+				nombre, apellido, email);
+		esperados.add(jdbcTemplate.queryForObject("SELECT id FROM clientes WHERE email = ?", Long.class, email));
+	}
+}
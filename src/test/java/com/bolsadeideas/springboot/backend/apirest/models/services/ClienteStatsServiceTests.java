@@ -0,0 +1,99 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+//Pruebas de la actualización incremental de las estadísticas y de su reconciliación con la base de datos
+@SpringBootTest
+class ClienteStatsServiceTests {
+
+	@Autowired
+	private IClienteService clienteService;
+
+	@Autowired
+	private IClienteStatsService clienteStatsService;
+
+	@Autowired
+	private IClienteBatchService clienteBatchService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void countersFollowSaveAndDelete() {
+		clienteStatsService.reconcile();
+		long total = clienteStatsService.count();
+		LocalDate today = LocalDate.now();
+		long todayCount = clienteStatsService.countByDay(today, today).getOrDefault(today, 0L);
+
+		Cliente cliente = new Cliente();
+		cliente.setNombre("Barbara");
+		cliente.setApellido("Liskov");
+		cliente.setEmail("barbara.liskov@Stats.Example");
+		cliente = clienteService.save(cliente);
+
+		assertEquals(total + 1, clienteStatsService.count());
+		assertEquals(todayCount + 1, clienteStatsService.countByDay(today, today).get(today));
+		assertEquals(Long.valueOf(1), clienteStatsService.countByDomain(1000).get("stats.example"));
+
+		//Al cambiar el email el cliente se mueve de dominio
+		Cliente actualizado = new Cliente();
+		actualizado.setId(cliente.getId());
+		actualizado.setVersion(cliente.getVersion());
+		actualizado.setCreatedAt(cliente.getCreatedAt());
+		actualizado.setNombre(cliente.getNombre());
+		actualizado.setApellido(cliente.getApellido());
+		actualizado.setEmail("barbara.liskov@mit.example");
+		clienteService.save(actualizado);
+		Map<String, Long> domains = clienteStatsService.countByDomain(1000);
+		assertEquals(null, domains.get("stats.example"));
+		assertEquals(Long.valueOf(1), domains.get("mit.example"));
+
+		clienteService.delete(cliente.getId());
+		assertEquals(total, clienteStatsService.count());
+
+		//La reconciliación no encuentra diferencias
+		Map<String, Long> months = clienteStatsService.countByMonth(null, null);
+		clienteStatsService.reconcile();
+		assertEquals(total, clienteStatsService.count());
+		assertEquals(months, clienteStatsService.countByMonth(null, null));
+		assertEquals(Long.valueOf(4), months.get("2018-01"));
+	}
+
+	@Test
+	void countersFollowBatchOperations() {
+		clienteStatsService.reconcile();
+		long total = clienteStatsService.count();
+
+		clienteBatchService.insertAll(Arrays.asList(ClienteTestData.cliente(null, "Frances", "Allen", "frances.allen@batch-stats.example"),
+				ClienteTestData.cliente(null, "Radia", "Perlman", "radia.perlman@batch-stats.example")).iterator());
+		assertEquals(total + 2, clienteStatsService.count());
+		assertEquals(Long.valueOf(2), clienteStatsService.countByDomain(1000).get("batch-stats.example"));
+
+		Long frances = jdbcTemplate.queryForObject("SELECT id FROM clientes WHERE email = 'frances.allen@batch-stats.example'", Long.class);
+		Long radia = jdbcTemplate.queryForObject("SELECT id FROM clientes WHERE email = 'radia.perlman@batch-stats.example'", Long.class);
+		clienteBatchService.updateAll(Collections.singletonList(ClienteTestData.cliente(frances, "Frances", "Allen", "frances.allen@ibm.example")).iterator());
+		clienteBatchService.deleteAll(Arrays.asList(radia, 999999L).iterator());
+
+		Map<String, Long> domains = clienteStatsService.countByDomain(1000);
+		assertEquals(total + 1, clienteStatsService.count());
+		assertEquals(null, domains.get("batch-stats.example"));
+		assertEquals(Long.valueOf(1), domains.get("ibm.example"));
+
+		//La reconciliación no encuentra diferencias
+		clienteStatsService.reconcile();
+		assertEquals(total + 1, clienteStatsService.count());
+		assertEquals(domains, clienteStatsService.countByDomain(1000));
+	}
+}
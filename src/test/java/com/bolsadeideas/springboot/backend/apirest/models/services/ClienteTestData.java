@@ -0,0 +1,20 @@
+package com.bolsadeideas.springboot.backend.apirest.models.services;
+
+import com.bolsadeideas.springboot.backend.apirest.models.entity.Cliente;
+
+//Datos de prueba compartidos por las pruebas de los servicios de clientes
+final class ClienteTestData {
+
+	private ClienteTestData() {
+	}
+
+	//Método para crear un cliente con los campos que envía el front end, el Id es nulo para los clientes nuevos
+	static Cliente cliente(Long id, String nombre, String apellido, String email) {
+		Cliente cliente = new Cliente();
+		cliente.setId(id);
+		cliente.setNombre(nombre);
+		cliente.setApellido(apellido);
+		cliente.setEmail(email);
+		return cliente;
+	}
+}
@@ -0,0 +1,8 @@
+/* Versión escalable de import.sql para la prueba de carga, genera los clientes del rango indicado */
+/* Los Ids se asignan en el orden del rango a partir del valor con el que se reinicia la columna, por lo que */
+/* el email se forma con el mismo número y las actualizaciones lo conservan sin consultar el cliente */
+/* La columna X de SYSTEM_RANGE se escribe entre comillas por DATABASE_TO_LOWER */
+INSERT INTO clientes (nombre, apellido, email, create_at, updated_at, version)
+SELECT CONCAT('Nombre', MOD("X", 1000)), CONCAT('Apellido', "X"), CONCAT('cliente', "X", '@loadtest.com'),
+DATEADD('DAY', -MOD("X", 3650), DATE '2024-01-01'), CURRENT_TIMESTAMP, 0
+FROM SYSTEM_RANGE(:from, :to)